@@ -0,0 +1,56 @@
+package game;
+
+public final class Action {
+    public enum Type { MOVE, PICK_UP, USE, EQUIP, ATTACK, TALK, QUIT, NOOP }
+
+    public static final Action ATTACK = new Action(Type.ATTACK, null, null);
+    public static final Action TALK = new Action(Type.TALK, null, null);
+    public static final Action QUIT = new Action(Type.QUIT, null, null);
+    // 상태를 바꾸지 않는 명령(봐, 인벤토리, 잘못된 입력 등). 행동 번호만 하나 올린다.
+    public static final Action NOOP = new Action(Type.NOOP, null, null);
+    private static final Action[] MOVES = new Action[Direction.values().length];
+
+    static {
+        for (Direction d : Direction.values()) {
+            MOVES[d.ordinal()] = new Action(Type.MOVE, d, null);
+        }
+    }
+
+    private final Type type;
+    private final Direction direction;
+    private final String itemName;
+
+    private Action(Type type, Direction direction, String itemName) {
+        this.type = type;
+        this.direction = direction;
+        this.itemName = itemName;
+    }
+
+    public static Action move(Direction d) {
+        return MOVES[d.ordinal()];
+    }
+
+    public static Action pickUp(String itemName) {
+        return new Action(Type.PICK_UP, null, itemName);
+    }
+
+    public static Action use(String itemName) {
+        return new Action(Type.USE, null, itemName);
+    }
+
+    public static Action equip(String itemName) {
+        return new Action(Type.EQUIP, null, itemName);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+}
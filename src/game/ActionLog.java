@@ -0,0 +1,288 @@
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class ActionLog {
+    private static final int MAGIC = 0x414c4f47;
+    private static final int VERSION = 1;
+    private static final String[] ITEM_NAMES = { "보스열쇠", "포션", "단검", "장검", "금화", "보물" };
+
+    // 행동 코드: 0~3 이동(Direction 순서), 4 공격, 5 대화, 6 종료, 7 줍기, 8 사용, 9 장착, 10 NOOP
+    private static final int OP_ATTACK = 4;
+    private static final int OP_TALK = 5;
+    private static final int OP_QUIT = 6;
+    private static final int OP_PICK_UP = 7;
+    private static final int OP_USE = 8;
+    private static final int OP_EQUIP = 9;
+    private static final int OP_NOOP = 10;
+
+    private final int seed;
+    private final int width;
+    private final int height;
+    private final String generatorName;
+    private final boolean deterministicCombat;
+    private byte[] buf = new byte[64];
+    private int length;
+    private int flushed;
+    private long actionCount;
+    private long lastMillis;
+
+    ActionLog(int seed, int width, int height, String generatorName, boolean deterministicCombat) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.generatorName = generatorName;
+        this.deterministicCombat = deterministicCombat;
+        writeInt(MAGIC);
+        writeVarint(VERSION);
+        writeVarint((seed << 1) ^ (seed >> 31));
+        writeVarint(width);
+        writeVarint(height);
+        writeString(generatorName);
+        writeVarint(deterministicCombat ? 1 : 0);
+    }
+
+    // 시각은 게임 시작 후 경과 ms를 직전 행동과의 차이로 저장한다(대부분 1~2바이트).
+    void append(Action action, long millis) {
+        int op;
+        switch (action.getType()) {
+            case MOVE: op = action.getDirection().ordinal(); break;
+            case ATTACK: op = OP_ATTACK; break;
+            case TALK: op = OP_TALK; break;
+            case QUIT: op = OP_QUIT; break;
+            case PICK_UP: op = OP_PICK_UP; break;
+            case USE: op = OP_USE; break;
+            case EQUIP: op = OP_EQUIP; break;
+            default: op = OP_NOOP; break;
+        }
+        writeVarint(op);
+        if (op == OP_PICK_UP || op == OP_USE || op == OP_EQUIP) {
+            writeItem(action.getItemName());
+        }
+        long delta = Math.max(0L, millis - lastMillis);
+        writeVarLong(delta);
+        lastMillis += delta;
+        actionCount++;
+    }
+
+    private void writeItem(String name) {
+        for (int i = 0; i < ITEM_NAMES.length; i++) {
+            if (ITEM_NAMES[i].equals(name)) {
+                writeVarint(i + 1);
+                return;
+            }
+        }
+        writeVarint(0);
+        writeString(name);
+    }
+
+    private void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeInt(int v) {
+        ensure(4);
+        buf[length++] = (byte) (v >>> 24);
+        buf[length++] = (byte) (v >>> 16);
+        buf[length++] = (byte) (v >>> 8);
+        buf[length++] = (byte) v;
+    }
+
+    private void writeVarint(int v) {
+        writeVarLong(v & 0xffffffffL);
+    }
+
+    private void writeVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7fL) != 0) {
+            buf[length++] = (byte) ((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        buf[length++] = (byte) v;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buf.length) {
+            buf = java.util.Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+        }
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getGeneratorName() {
+        return generatorName;
+    }
+
+    public boolean isDeterministicCombat() {
+        return deterministicCombat;
+    }
+
+    public long getActionCount() {
+        return actionCount;
+    }
+
+    public int getByteLength() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return java.util.Arrays.copyOf(buf, length);
+    }
+
+    // 지난번 이후에 붙은 바이트만 내보낸다. 같은 스트림에 계속 이어 쓰면 파일이 곧 로그가 된다.
+    public void flushTo(OutputStream out) throws IOException {
+        out.write(buf, flushed, length - flushed);
+        flushed = length;
+    }
+
+    public static Reader read(byte[] data) {
+        return new Reader(data);
+    }
+
+    public static class Reader {
+        private static final Action[][] ITEM_ACTIONS = new Action[3][ITEM_NAMES.length];
+
+        static {
+            for (int i = 0; i < ITEM_NAMES.length; i++) {
+                ITEM_ACTIONS[0][i] = Action.pickUp(ITEM_NAMES[i]);
+                ITEM_ACTIONS[1][i] = Action.use(ITEM_NAMES[i]);
+                ITEM_ACTIONS[2][i] = Action.equip(ITEM_NAMES[i]);
+            }
+        }
+
+        private final byte[] data;
+        private int pos;
+        private final int seed;
+        private final int width;
+        private final int height;
+        private final String generatorName;
+        private final boolean deterministicCombat;
+        private Action action;
+        private long millis;
+
+        private Reader(byte[] data) {
+            this.data = data;
+            if (data.length < 4 || readInt() != MAGIC) {
+                throw new IllegalArgumentException("행동 기록 형식이 아닙니다.");
+            }
+            int version = (int) readVarLong();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 행동 기록 버전: " + version);
+            }
+            int zigzag = (int) readVarLong();
+            this.seed = (zigzag >>> 1) ^ -(zigzag & 1);
+            this.width = (int) readVarLong();
+            this.height = (int) readVarLong();
+            this.generatorName = readString();
+            this.deterministicCombat = readVarLong() != 0;
+        }
+
+        public int getSeed() {
+            return seed;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public String getGeneratorName() {
+            return generatorName;
+        }
+
+        public boolean isDeterministicCombat() {
+            return deterministicCombat;
+        }
+
+        public boolean next() {
+            if (pos >= data.length) return false;
+            long code = readVarLong();
+            // 클라이언트가 보낸 기록이므로 범위를 벗어난 코드는 모두 IllegalArgumentException으로 거절한다.
+            if (code < 0 || code > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("알 수 없는 행동 코드: " + code);
+            }
+            int op = (int) code;
+            if (op < 4) {
+                action = Action.move(Direction.ofOrdinal(op));
+            } else {
+                switch (op) {
+                    case OP_ATTACK: action = Action.ATTACK; break;
+                    case OP_TALK: action = Action.TALK; break;
+                    case OP_QUIT: action = Action.QUIT; break;
+                    case OP_PICK_UP: case OP_USE: case OP_EQUIP: action = readItemAction(op - OP_PICK_UP); break;
+                    case OP_NOOP: action = Action.NOOP; break;
+                    default: throw new IllegalArgumentException("알 수 없는 행동 코드: " + op);
+                }
+            }
+            millis += readVarLong();
+            return true;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        private Action readItemAction(int kind) {
+            long code = readVarLong();
+            if (code < 0 || code > ITEM_NAMES.length) {
+                throw new IllegalArgumentException("알 수 없는 아이템 코드: " + code);
+            }
+            if (code > 0) return ITEM_ACTIONS[kind][(int) code - 1];
+            String name = readString();
+            return kind == 0 ? Action.pickUp(name) : kind == 1 ? Action.use(name) : Action.equip(name);
+        }
+
+        private int readInt() {
+            int v = ((data[pos] & 0xff) << 24) | ((data[pos + 1] & 0xff) << 16) | ((data[pos + 2] & 0xff) << 8) | (data[pos + 3] & 0xff);
+            pos += 4;
+            return v;
+        }
+
+        private long readVarLong() {
+            long v = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= data.length || shift > 63) {
+                    throw new IllegalArgumentException("행동 기록이 잘렸습니다.");
+                }
+                byte b = data[pos++];
+                v |= (long) (b & 0x7f) << shift;
+                if (b >= 0) return v;
+                shift += 7;
+            }
+        }
+
+        private String readString() {
+            long n = readVarLong();
+            if (n < 0 || n > data.length - pos) {
+                throw new IllegalArgumentException("행동 기록이 잘렸습니다.");
+            }
+            String s = new String(data, pos, (int) n, StandardCharsets.UTF_8);
+            pos += (int) n;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package game;
+
+public class AutoPlayer {
+    private static final Action PICK_KEY = Action.pickUp("보스열쇠");
+    private static final Action USE_KEY = Action.use("보스열쇠");
+    private static final Action USE_POTION = Action.use("포션");
+    private static final Action EQUIP_LONGSWORD = Action.equip("장검");
+    private static final Action EQUIP_DAGGER = Action.equip("단검");
+
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] queue = new int[0];
+    private int stamp;
+
+    // 헤드리스 플레이: 몬스터가 있으면 싸우고(위험하면 포션), 아이템은 줍고, 더 강한 무기는 장착한 뒤
+    // 가장 가까운 아이템/미방문 방으로, 열쇠가 있으면 보스 방으로 이동한다.
+    public Outcome play(Game game, int maxActions) {
+        if (game.isOpenWorld()) {
+            throw new IllegalArgumentException("오픈 월드는 자동 플레이를 지원하지 않습니다.");
+        }
+        Outcome last = Outcome.QUIT;
+        for (int i = 0; i < maxActions && game.isRunning(); i++) {
+            Action next = decide(game);
+            if (next == null) break;
+            last = game.apply(next);
+        }
+        return last;
+    }
+
+    // 더 할 일이 없으면(갈 수 있는 곳을 다 봤고 보스 방도 못 열면) null.
+    public Action decide(Game game) {
+        Room room = game.getCurrentRoomRef();
+        World world = room.getWorld();
+        int cell = room.getCell();
+        boolean hasKey = game.hasInventoryItem("보스열쇠");
+
+        if (world.hasMonster(cell)) {
+            Monster m = world.getMonster(cell);
+            if (game.getPlayerHealth() <= m.getAttackDamage() * 2 + 2 && game.hasInventoryItem("포션")) {
+                return USE_POTION;
+            }
+            return Action.ATTACK;
+        }
+        if (world.hasItem(cell)) {
+            String name = world.getItem(cell).getName();
+            return "보스열쇠".equals(name) ? PICK_KEY : Action.pickUp(name);
+        }
+        if (game.getWeaponBonusDamage() < 10 && game.hasInventoryItem("장검")) {
+            return EQUIP_LONGSWORD;
+        }
+        if (game.getWeaponBonusDamage() < 5 && game.hasInventoryItem("단검")) {
+            return EQUIP_DAGGER;
+        }
+        int mask = world.exitMask(cell);
+        if (hasKey) {
+            for (Direction d : Direction.values()) {
+                if ((mask & d.bit()) != 0 && world.isLocked(world.neighbor(cell, d))) {
+                    if (game.getPlayerHealth() < 100 && game.hasInventoryItem("포션")) return USE_POTION;
+                    return USE_KEY;
+                }
+            }
+        }
+        int target = nearestTarget(world, cell, hasKey);
+        if (target < 0) return null;
+        int step = target;
+        while (parent[step] != cell) step = parent[step];
+        for (Direction d : Direction.values()) {
+            if ((mask & d.bit()) != 0 && world.neighbor(cell, d) == step) return Action.move(d);
+        }
+        return null;
+    }
+
+    // 잠긴 방은 지나갈 수 없다. 열쇠가 있으면 잠긴 방까지 가서 문을 연다.
+    private int nearestTarget(World world, int source, boolean hasKey) {
+        int n = world.size();
+        if (seen.length < n) {
+            parent = new int[n];
+            seen = new int[n];
+            queue = new int[n];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            java.util.Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        int head = 0;
+        int tail = 0;
+        seen[source] = stamp;
+        queue[tail++] = source;
+        int lockedTarget = -1;
+        while (head < tail) {
+            int c = queue[head++];
+            int mask = world.exitMask(c);
+            for (Direction d : Direction.values()) {
+                if ((mask & d.bit()) == 0) continue;
+                int next = world.neighbor(c, d);
+                if (seen[next] == stamp) continue;
+                seen[next] = stamp;
+                parent[next] = c;
+                if (world.isLocked(next)) {
+                    if (hasKey && lockedTarget < 0) lockedTarget = next;
+                    continue;
+                }
+                if (!world.isVisited(next) || world.hasItem(next)) return next;
+                queue[tail++] = next;
+            }
+        }
+        return lockedTarget;
+    }
+}
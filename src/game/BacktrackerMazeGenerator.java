@@ -0,0 +1,13 @@
+package game;
+
+public class BacktrackerMazeGenerator implements MazeGenerator {
+    @Override
+    public String getName() {
+        return "backtracker";
+    }
+
+    @Override
+    public void generate(World world, java.util.Random rng) {
+        MazeCarver.carveBacktracker(world, rng);
+    }
+}
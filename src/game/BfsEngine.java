@@ -0,0 +1,96 @@
+package game;
+
+public class BfsEngine {
+    private int[] queue = new int[0];
+    private int[] dist = new int[0];
+    private int[] parent = new int[0];
+    private int size;
+    private int reached;
+    private World lastWorld;
+    private int lastSource = -1;
+
+    public void run(World world, int source) {
+        run(world, source, -1);
+    }
+
+    public void run(World world, int source, int target) {
+        int n = world.size();
+        ensureCapacity(n);
+        size = n;
+        lastWorld = world;
+        lastSource = source;
+        java.util.Arrays.fill(dist, 0, n, -1);
+        int width = world.getWidth();
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        dist[source] = 0;
+        parent[source] = -1;
+        queue[tail++ & mask] = source;
+        reached = 1;
+        while (head != tail) {
+            int c = queue[head++ & mask];
+            if (c == target) break;
+            int exits = world.exitMask(c);
+            int next = dist[c] + 1;
+            if ((exits & Direction.EAST.bit()) != 0 && dist[c + 1] == -1) {
+                dist[c + 1] = next; parent[c + 1] = c; queue[tail++ & mask] = c + 1; reached++;
+            }
+            if ((exits & Direction.WEST.bit()) != 0 && dist[c - 1] == -1) {
+                dist[c - 1] = next; parent[c - 1] = c; queue[tail++ & mask] = c - 1; reached++;
+            }
+            if ((exits & Direction.SOUTH.bit()) != 0 && dist[c + width] == -1) {
+                dist[c + width] = next; parent[c + width] = c; queue[tail++ & mask] = c + width; reached++;
+            }
+            if ((exits & Direction.NORTH.bit()) != 0 && dist[c - width] == -1) {
+                dist[c - width] = next; parent[c - width] = c; queue[tail++ & mask] = c - width; reached++;
+            }
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (dist.length < n) {
+            dist = new int[n];
+            parent = new int[n];
+        }
+        if (queue.length < Math.min(n, 1 << 30)) {
+            int cap = n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+            queue = new int[cap > 0 ? cap : 1 << 30];
+        }
+    }
+
+    public boolean hasReached(World world, int source, int target) {
+        return lastWorld == world && lastSource == source && dist[target] >= 0;
+    }
+
+    public int distance(int cell) {
+        return dist[cell];
+    }
+
+    public int parent(int cell) {
+        return parent[cell];
+    }
+
+    public int[] distances() {
+        return dist;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int reachedCount() {
+        return reached;
+    }
+
+    public int[] pathTo(int target) {
+        if (dist[target] < 0) return new int[0];
+        int[] path = new int[dist[target] + 1];
+        int c = target;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = c;
+            c = parent[c];
+        }
+        return path;
+    }
+}
@@ -0,0 +1,237 @@
+package game;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ChunkedWorld implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+    static final String GUARDIAN = "구역 수호자";
+
+    private final int worldSeed;
+    private final int chunkSize;
+    // 전역 좌표가 int라서 청크 좌표는 원점과 이웃 칸 계산이 넘치지 않는 범위로 제한한다(32칸 청크면 각 방향 약 6700만 청크).
+    private final int maxChunk;
+    private final MazeGenerator generator;
+    private final DungeonGenerator dungeonGenerator = new DungeonGenerator();
+    private final Map<Long, World> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private final long memoryBudgetBytes;
+    private final Path regionFile;
+    private RegionStore store;
+    private long loadedBytes;
+    private long evictions;
+    private long reloads;
+    private int focusX;
+    private int focusY;
+    private long mazeGenerationNanos;
+
+    public ChunkedWorld(int worldSeed, int chunkSize, MazeGenerator generator) {
+        this(worldSeed, chunkSize, generator, Long.MAX_VALUE, null);
+    }
+
+    public ChunkedWorld(int worldSeed, int chunkSize, MazeGenerator generator, long memoryBudgetBytes, Path regionFile) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("청크 크기는 2 이상이어야 합니다: " + chunkSize);
+        }
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("메모리 예산은 0보다 커야 합니다: " + memoryBudgetBytes);
+        }
+        this.worldSeed = worldSeed;
+        this.chunkSize = chunkSize;
+        this.maxChunk = Integer.MAX_VALUE / chunkSize - 1;
+        this.generator = generator;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.regionFile = regionFile;
+    }
+
+    public int getWorldSeed() {
+        return worldSeed;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getLoadedChunkCount() {
+        return chunks.size();
+    }
+
+    public long getMazeGenerationNanos() {
+        return mazeGenerationNanos;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public long getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    public long getReloadCount() {
+        return reloads;
+    }
+
+    public int getPagedChunkCount() {
+        return store == null ? 0 : store.getRegionCount();
+    }
+
+    public int getMaxChunk() {
+        return maxChunk;
+    }
+
+    private boolean inRange(int c) {
+        return c >= -maxChunk && c <= maxChunk;
+    }
+
+    public World chunk(int cx, int cy) {
+        if (!inRange(cx) || !inRange(cy)) {
+            throw new IllegalArgumentException("월드 경계를 벗어난 청크: (" + cx + ", " + cy + ")");
+        }
+        long key = key(cx, cy);
+        World w = chunks.get(key);
+        if (w == null) {
+            w = load(key, cx, cy);
+            chunks.put(key, w);
+            loadedBytes += w.estimateBytes();
+            enforceBudget(key);
+        }
+        return w;
+    }
+
+    private World load(long key, int cx, int cy) {
+        if (store != null && store.contains(key)) {
+            reloads++;
+            return World.decode(store.map(key), this);
+        }
+        return generateChunk(cx, cy);
+    }
+
+    // 예산을 넘으면 플레이어 주변(1청크 이내)을 제외하고 가장 오래 안 쓴 청크부터 내보낸다.
+    // 바뀐 청크만 리전 파일에 기록하고, 손대지 않은 청크는 다시 필요할 때 시드로 재생성한다.
+    private void enforceBudget(long justLoaded) {
+        Iterator<Map.Entry<Long, World>> it = chunks.entrySet().iterator();
+        while (loadedBytes > memoryBudgetBytes && it.hasNext()) {
+            Map.Entry<Long, World> e = it.next();
+            World w = e.getValue();
+            if (e.getKey() == justLoaded) continue;
+            if (Math.abs(w.getChunkX() - focusX) <= 1 && Math.abs(w.getChunkY() - focusY) <= 1) continue;
+            if (w.isDirty()) {
+                if (store == null) {
+                    store = openStore();
+                }
+                store.write(e.getKey(), w.encode());
+                w.clearDirty();
+            }
+            loadedBytes -= w.estimateBytes();
+            evictions++;
+            it.remove();
+        }
+    }
+
+    private RegionStore openStore() {
+        if (regionFile == null) return RegionStore.createTemp();
+        try {
+            return new RegionStore(regionFile);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException("리전 파일 열기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+
+    public World loadedChunk(int cx, int cy) {
+        return chunks.get(key(cx, cy));
+    }
+
+    public World loadedChunkContaining(int x, int y) {
+        return loadedChunk(Math.floorDiv(x, chunkSize), Math.floorDiv(y, chunkSize));
+    }
+
+    public Room roomAt(int x, int y) {
+        World w = chunk(Math.floorDiv(x, chunkSize), Math.floorDiv(y, chunkSize));
+        return w.room(Math.floorMod(x, chunkSize), Math.floorMod(y, chunkSize));
+    }
+
+    Room roomAcross(World from, int cell, Direction d) {
+        int x = from.getOriginX() + from.xOf(cell) + d.getDx();
+        int y = from.getOriginY() + from.yOf(cell) + d.getDy();
+        return roomAt(x, y);
+    }
+
+    // 청크 경계에 가까워지면 문 건너편 청크를 미리 만들어 둔다.
+    public void prefetchAround(Room room) {
+        World w = room.getWorld();
+        int lx = w.xOf(room.getCell());
+        int ly = w.yOf(room.getCell());
+        int margin = Math.max(1, chunkSize / 4);
+        int cx = w.getChunkX();
+        int cy = w.getChunkY();
+        focusX = cx;
+        focusY = cy;
+        if (lx < margin && cx > -maxChunk) chunk(cx - 1, cy);
+        if (lx >= chunkSize - margin && cx < maxChunk) chunk(cx + 1, cy);
+        if (ly < margin && cy > -maxChunk) chunk(cx, cy - 1);
+        if (ly >= chunkSize - margin && cy < maxChunk) chunk(cx, cy + 1);
+    }
+
+    private World generateChunk(int cx, int cy) {
+        World w = new World(chunkSize, chunkSize, "빈 방", this, cx, cy);
+        dungeonGenerator.generate(w, chunkSeed(worldSeed, cx, cy), generator);
+        mazeGenerationNanos = dungeonGenerator.getMazeGenerationNanos();
+        int last = chunkSize - 1;
+        // 월드 경계 쪽으로는 문을 내지 않는다.
+        if (cx < maxChunk) w.openPortal(w.cellOf(last, doorOffset(cx, cy, true)), Direction.EAST);
+        if (cx > -maxChunk) w.openPortal(w.cellOf(0, doorOffset(cx - 1, cy, true)), Direction.WEST);
+        if (cy < maxChunk) w.openPortal(w.cellOf(doorOffset(cx, cy, false), last), Direction.SOUTH);
+        if (cy > -maxChunk) w.openPortal(w.cellOf(doorOffset(cx, cy - 1, false), 0), Direction.NORTH);
+        if (cx == 0 && cy == 0) {
+            w.setNpc(w.cellOf(0, 0), "정찰병", "보스는 이 구역 어딘가에 있다. 경계의 문을 넘으면 새 구역이 열린다.");
+        } else {
+            demoteBoss(w);
+        }
+        return w;
+    }
+
+    // 진짜 보스는 시작 청크에만 둔다. 다른 청크의 보스 자리는 같은 방, 같은 잠금 그대로 일반 수호자로 바꾼다.
+    private static void demoteBoss(World w) {
+        for (int c = 0; c < w.size(); c++) {
+            Monster m = w.getMonster(c);
+            if (m != null && m.isBoss()) {
+                w.setMonster(c, new Monster(GUARDIAN, m.getHealth(), m.getAttackDamage(), false));
+                w.setDescription(c, "수호자의 방. 잠긴 문 너머로 낮은 숨소리가 들린다.");
+            }
+        }
+    }
+
+    // (cx, cy) 청크의 동쪽(vertical) 또는 남쪽 경계에 뚫는 문의 위치. 양쪽 청크가 같은 값을 계산한다.
+    private int doorOffset(int cx, int cy, boolean vertical) {
+        long h = mix(worldSeed * 0x9E3779B97F4A7C15L + cx * 0xBF58476D1CE4E5B9L + cy * 0x94D049BB133111EBL + (vertical ? 1 : 2));
+        return (int) Math.floorMod(h, (long) chunkSize);
+    }
+
+    public static long chunkSeed(int worldSeed, int cx, int cy) {
+        return mix(((long) worldSeed << 32) ^ mix(((long) cx << 32) ^ (cy & 0xffffffffL)));
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
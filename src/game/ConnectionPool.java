@@ -0,0 +1,312 @@
+package game;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool implements AutoCloseable {
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    private static final long VALIDATE_AFTER_IDLE_MS = 1000L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final ArrayDeque<Pooled> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("커넥션 풀 크기는 1 이상이어야 합니다: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private final class Pooled {
+        final Connection connection;
+        final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        long lastUsedMillis = System.currentTimeMillis();
+
+        Pooled(Connection connection) {
+            this.connection = connection;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps != null) {
+                statementHits.incrementAndGet();
+                ps.clearParameters();
+                return ps;
+            }
+            statementMisses.incrementAndGet();
+            ps = connection.prepareStatement(sql);
+            statements.put(sql, ps);
+            if (statements.size() > STATEMENT_CACHE_SIZE) {
+                Iterator<PreparedStatement> it = statements.values().iterator();
+                closeQuietly(it.next());
+                it.remove();
+            }
+            return ps;
+        }
+
+        void close() {
+            for (PreparedStatement ps : statements.values()) closeQuietly(ps);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignore) {
+            }
+        }
+    }
+
+    // 빌린 커넥션. close하면 풀로 돌아가고, invalidate하면 닫혀서 다음 대여 때 새로 연다.
+    public final class Lease implements AutoCloseable {
+        private Pooled pooled;
+        private boolean broken;
+
+        private Lease(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        public Connection getConnection() {
+            check();
+            return pooled.connection;
+        }
+
+        public PreparedStatement prepare(String sql) throws SQLException {
+            check();
+            try {
+                return pooled.prepare(sql);
+            } catch (SQLException e) {
+                broken = true;
+                throw e;
+            }
+        }
+
+        public void invalidate() {
+            broken = true;
+        }
+
+        private void check() {
+            if (pooled == null) {
+                throw new IllegalStateException("이미 반납된 커넥션입니다.");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (pooled == null) return;
+            Pooled p = pooled;
+            pooled = null;
+            release(p, broken);
+        }
+    }
+
+    public interface Work<T> {
+        T run(Lease lease) throws SQLException;
+    }
+
+    // 빌린 커넥션으로 작업한다. 작업 중 SQLException이 나면 그 커넥션은 풀에 돌려놓지 않고 닫는다.
+    public <T> T withLease(Work<T> work) throws SQLException {
+        try (Lease lease = borrow()) {
+            try {
+                return work.run(lease);
+            } catch (SQLException e) {
+                lease.invalidate();
+                throw e;
+            }
+        }
+    }
+
+    public Lease borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("커넥션 풀이 닫혔습니다.");
+        }
+        long t0 = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("커넥션 풀 대기 시간 초과(" + borrowTimeoutMillis + "ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("커넥션 대기 중 인터럽트", e);
+        }
+        borrowWaitNanos.addAndGet(System.nanoTime() - t0);
+        try {
+            Pooled p;
+            while ((p = pollIdle()) != null) {
+                if (isUsable(p)) break;
+                p.close();
+            }
+            if (p == null) {
+                p = new Pooled(DriverManager.getConnection(url, user, password));
+                created.incrementAndGet();
+            }
+            borrowed.incrementAndGet();
+            return new Lease(p);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private synchronized Pooled pollIdle() {
+        return idle.pollFirst();
+    }
+
+    // 오래 쉬었던 커넥션만 isValid로 확인한다. 방금 반납된 커넥션까지 매번 왕복하면 풀의 이득이 사라진다.
+    private boolean isUsable(Pooled p) {
+        long idleFor = System.currentTimeMillis() - p.lastUsedMillis;
+        if (idleFor > idleTimeoutMillis) {
+            evicted.incrementAndGet();
+            return false;
+        }
+        if (idleFor < VALIDATE_AFTER_IDLE_MS) return true;
+        try {
+            if (p.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) return true;
+        } catch (SQLException ignore) {
+        }
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    private void release(Pooled p, boolean broken) {
+        try {
+            if (broken || closed) {
+                p.close();
+                return;
+            }
+            p.lastUsedMillis = System.currentTimeMillis();
+            synchronized (this) {
+                idle.addFirst(p);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        ArrayDeque<Pooled> stale = new ArrayDeque<>();
+        synchronized (this) {
+            Iterator<Pooled> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                Pooled p = it.next();
+                if (now - p.lastUsedMillis <= idleTimeoutMillis) break;
+                it.remove();
+                stale.add(p);
+            }
+        }
+        for (Pooled p : stale) {
+            p.close();
+            evicted.incrementAndGet();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignore) {
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getBorrowCount() {
+        return borrowed.get();
+    }
+
+    public long getBorrowTimeoutCount() {
+        return borrowTimeouts.get();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailures.get();
+    }
+
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.get();
+    }
+
+    public double getAverageBorrowWaitMillis() {
+        long n = borrowed.get();
+        return n == 0 ? 0.0 : borrowWaitNanos.get() / 1e6 / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("커넥션 풀: 사용 %d/%d, 유휴 %d, 생성 %d, 대여 %d, 대기 초과 %d, 검증 실패 %d, 정리 %d, 문장 캐시 %d/%d",
+                getActiveCount(), maxSize, getIdleCount(), getCreatedCount(), getBorrowCount(), getBorrowTimeoutCount(),
+                getValidationFailureCount(), getEvictedCount(), getStatementCacheHits(), getStatementCacheHits() + getStatementCacheMisses());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        synchronized (this) {
+            for (Pooled p : idle) p.close();
+            idle.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package game;
+
+public enum Direction {
+    NORTH("북쪽", 0, -1),
+    SOUTH("남쪽", 0, 1),
+    EAST("동쪽", 1, 0),
+    WEST("서쪽", -1, 0);
+
+    private static final Direction[] VALUES = values();
+
+    private final String label;
+    private final int dx;
+    private final int dy;
+
+    Direction(String label, int dx, int dy) {
+        this.label = label;
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public Direction opposite() {
+        switch (this) {
+            case NORTH: return SOUTH;
+            case SOUTH: return NORTH;
+            case EAST: return WEST;
+            default: return EAST;
+        }
+    }
+
+    public static Direction fromLabel(String label) {
+        if (label == null) return null;
+        for (Direction d : VALUES) {
+            if (d.label.equals(label)) return d;
+        }
+        return null;
+    }
+
+    public static Direction ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,77 @@
+package game;
+
+public class DungeonAnalysis {
+    private final World world;
+    private final BfsEngine bfs;
+    private final int source;
+    private final int farthest;
+    private final int[] deadEnds;
+
+    private DungeonAnalysis(World world, BfsEngine bfs, int source, int farthest, int[] deadEnds) {
+        this.world = world;
+        this.bfs = bfs;
+        this.source = source;
+        this.farthest = farthest;
+        this.deadEnds = deadEnds;
+    }
+
+    // 거리/부모 값은 bfs 엔진의 배열을 그대로 참조하므로 엔진을 다시 돌리기 전까지만 유효하다.
+    public static DungeonAnalysis of(World world, int source, BfsEngine bfs) {
+        bfs.run(world, source);
+        int[] dist = bfs.distances();
+        int size = world.size();
+        int farthest = source;
+        int maxd = -1;
+        int deadEndCount = 0;
+        for (int c = 0; c < size; c++) {
+            if (dist[c] > maxd) { maxd = dist[c]; farthest = c; }
+            if (c != source && Integer.bitCount(world.exitMask(c)) <= 1) deadEndCount++;
+        }
+        int[] deadEnds = new int[deadEndCount];
+        int n = 0;
+        for (int c = 0; c < size && n < deadEndCount; c++) {
+            if (c != source && Integer.bitCount(world.exitMask(c)) <= 1) deadEnds[n++] = c;
+        }
+        return new DungeonAnalysis(world, bfs, source, farthest, deadEnds);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int distance(int cell) {
+        return bfs.distance(cell);
+    }
+
+    public int parent(int cell) {
+        return bfs.parent(cell);
+    }
+
+    public int degree(int cell) {
+        return Integer.bitCount(world.exitMask(cell));
+    }
+
+    public int getFarthest() {
+        return farthest;
+    }
+
+    public int getMaxDistance() {
+        return bfs.distance(farthest);
+    }
+
+    public int getDeadEndCount() {
+        return deadEnds.length;
+    }
+
+    public int getDeadEnd(int i) {
+        return deadEnds[i];
+    }
+
+    public int[] pathTo(int target) {
+        return bfs.pathTo(target);
+    }
+}
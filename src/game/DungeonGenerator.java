@@ -0,0 +1,179 @@
+package game;
+
+public class DungeonGenerator {
+    static final String BOSS = "☠️ 어둠의 군주";
+    static final String WOLF = "🦊 야생 늑대";
+    static final String SKELETON = "💀 해골 병사";
+    static final String MINOTAUR = "🐮 미노타우로스";
+
+    private final BfsEngine bfs = new BfsEngine();
+    private long mazeGenerationNanos;
+
+    public DungeonAnalysis generate(World world, long seed, MazeGenerator generator) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        java.util.Random rng = new LcgRandom(seed);
+        long t0 = System.nanoTime();
+        generator.generate(world, rng);
+        mazeGenerationNanos = System.nanoTime() - t0;
+        MazeCarver.addRandomLoops(world, Math.max(2, width * height / 8), rng);
+        DungeonAnalysis analysis = DungeonAnalysis.of(world, world.cellOf(0, 0), bfs);
+        assignDescriptions(world, analysis, rng);
+        placeBossKeyMonstersAndItems(world, analysis, rng);
+        return analysis;
+    }
+
+    public long getMazeGenerationNanos() {
+        return mazeGenerationNanos;
+    }
+
+    private void assignDescriptions(World world, DungeonAnalysis analysis, java.util.Random rng) {
+        String[] early = new String[] {
+            "낡은 회랑. 낮은 속삭임이 들린다.",
+            "작은 전당. 촛불이 깜빡인다.",
+            "좁은 복도. 먼지가 뿌옇다."
+        };
+        String[] mid = new String[] {
+            "축축한 회랑. 시체가 꿈틀거린다.",
+            "파손된 무기고. 철 냄새가 난다.",
+            "갈라진 바닥. 발밑에서 바람이 샌다."
+        };
+        String[] late = new String[] {
+            "큰 전투의 흔적. 땅이 움푹 패였다.",
+            "어두운 복도. 긴장감이 감돈다.",
+            "침식된 전당. 바닥이 끈적거린다."
+        };
+
+        int size = world.size();
+        for (int c = 0; c < size; c++) {
+            if (c == analysis.getSource()) {
+                world.setDescription(c, "성의 후문. 사방이 낡아 보인다.");
+                continue;
+            }
+            int d = analysis.distance(c);
+            String txt;
+            if (d <= 2) {
+                txt = early[rng.nextInt(early.length)];
+            } else if (d <= 4) {
+                txt = mid[rng.nextInt(mid.length)];
+            } else {
+                txt = late[rng.nextInt(late.length)];
+            }
+            world.setDescription(c, txt);
+        }
+    }
+
+    private void placeBossKeyMonstersAndItems(World world, DungeonAnalysis analysis, java.util.Random rng) {
+        int boss = placeBoss(world, analysis);
+        int[] path = analysis.pathTo(boss);
+        int key = placeKey(world, analysis, path, boss, rng);
+        placeGold(world, analysis, rng);
+        placeWeapon(world, path, boss, key, rng);
+        placePotion(world, path, key);
+        placeMonsters(world, analysis, boss, key, rng);
+    }
+
+    private int placeBoss(World world, DungeonAnalysis analysis) {
+        int boss = analysis.getFarthest();
+        world.setDescription(boss, "☠️ 보스의 방! 어둠의 기운이 요동친다.");
+        world.setMonster(boss, new Monster(BOSS, 60, 8, true));
+        world.lock(boss, "보스열쇠");
+        return boss;
+    }
+
+    private int placeKey(World world, DungeonAnalysis analysis, int[] path, int boss, java.util.Random rng) {
+        if (path.length >= 3) {
+            int[] candidates = new int[path.length - 2];
+            for (int i = 0; i < candidates.length; i++) candidates[i] = i + 1;
+            shuffleInts(candidates, candidates.length, rng);
+            for (int idx : candidates) {
+                int k = path[idx];
+                if (canPlaceItem(world, k)) {
+                    world.setItem(k, new Item("보스열쇠", "보스의 방을 여는 열쇠."));
+                    return k;
+                }
+            }
+        }
+        int size = world.size();
+        for (int c = 0; c < size; c++) {
+            if (c == analysis.getSource() || c == boss) continue;
+            if (canPlaceItem(world, c)) {
+                world.setItem(c, new Item("보스열쇠", "보스의 방을 여는 열쇠."));
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private void placeGold(World world, DungeonAnalysis analysis, java.util.Random rng) {
+        int count = analysis.getDeadEndCount();
+        if (count == 0) return;
+        int[] deadEnds = new int[count];
+        for (int i = 0; i < count; i++) deadEnds[i] = analysis.getDeadEnd(i);
+        shuffleInts(deadEnds, count, rng);
+        for (int de : deadEnds) {
+            if (canPlaceItem(world, de)) { world.setItem(de, new Item("금화", "빛나는 금화 몇 닢.")); break; }
+        }
+    }
+
+    private void placeWeapon(World world, int[] path, int boss, int key, java.util.Random rng) {
+        if (path.length <= 1) return;
+        String weaponName = rng.nextBoolean() ? "장검" : "단검";
+        String weaponDesc = "장검".equals(weaponName) ? "묵직한 장검." : "가벼운 무기.";
+        for (int i = 1; i < path.length; i++) {
+            int p = path[i];
+            if (p == boss || p == key) continue;
+            if (canPlaceItem(world, p)) { world.setItem(p, new Item(weaponName, weaponDesc)); break; }
+        }
+    }
+
+    private void placePotion(World world, int[] path, int key) {
+        if (path.length <= 2) return;
+        int midp = path[path.length / 2];
+        if (canPlaceItem(world, midp) && midp != key) {
+            world.setItem(midp, new Item("포션", "체력을 회복(연출용)."));
+            return;
+        }
+        for (int i = 1; i < path.length - 1; i++) {
+            int p = path[i];
+            if (p == key) continue;
+            if (canPlaceItem(world, p)) { world.setItem(p, new Item("포션", "체력을 회복(연출용).")); break; }
+        }
+    }
+
+    private void placeMonsters(World world, DungeonAnalysis analysis, int boss, int key, java.util.Random rng) {
+        int size = world.size();
+        for (int c = 0; c < size; c++) {
+            if (c == analysis.getSource() || c == boss || c == key) continue;
+            if (!canPlaceMonster(world, c)) continue;
+
+            int d = analysis.distance(c);
+            double p;
+            String name;
+            int hp, atk;
+            if (d <= 2) { p = 0.35; name = WOLF; hp = 16; atk = 4; }
+            else if (d <= 4) { p = 0.45; name = SKELETON; hp = 22; atk = 5; }
+            else { p = 0.55; name = MINOTAUR; hp = 35; atk = 7; }
+            if (rng.nextDouble() < p) {
+                world.setMonster(c, new Monster(name, hp, atk, false));
+            }
+        }
+    }
+
+    private boolean canPlaceItem(World world, int cell) {
+        return !world.hasMonster(cell) && !world.hasItem(cell);
+    }
+
+    private boolean canPlaceMonster(World world, int cell) {
+        return !world.hasMonster(cell) && !world.hasItem(cell);
+    }
+
+    private void shuffleInts(int[] arr, int length, java.util.Random rng) {
+        for (int i = length; i > 1; i--) {
+            int j = rng.nextInt(i);
+            int tmp = arr[i - 1];
+            arr[i - 1] = arr[j];
+            arr[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class DungeonPool implements AutoCloseable {
+    private final int width;
+    private final int height;
+    private final MazeGenerator generator;
+    private final BlockingQueue<Game> ready;
+    private final SplittableRandom seeds;
+    private final Thread worker;
+    private volatile boolean closed;
+    private long hits;
+    private long misses;
+
+    public DungeonPool(int capacity, int width, int height, MazeGenerator generator, long masterSeed) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("풀 크기는 1 이상이어야 합니다: " + capacity);
+        }
+        this.width = width;
+        this.height = height;
+        this.generator = generator;
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.seeds = new SplittableRandom(masterSeed);
+        this.worker = new Thread(this::fill, "dungeon-pool");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // 시드는 마스터 시드에서 정해진 순서로 뽑으므로, 같은 마스터 시드면 같은 순서의 맵이 나온다.
+    private synchronized int nextSeed() {
+        return seeds.nextInt(Integer.MAX_VALUE);
+    }
+
+    private Game build(int seed) {
+        Game game = new Game();
+        game.setupGame(seed, width, height, generator);
+        return game;
+    }
+
+    private void fill() {
+        try {
+            while (!closed) {
+                ready.put(build(nextSeed()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 준비된 던전이 없으면 기다리지 않고 호출한 스레드에서 바로 만든다.
+    public Game take() {
+        if (closed) {
+            throw new IllegalStateException("이미 닫힌 던전 풀입니다.");
+        }
+        Game game = ready.poll();
+        synchronized (this) {
+            if (game != null) hits++; else misses++;
+        }
+        if (game == null) {
+            game = build(nextSeed());
+        }
+        game.startClock();
+        return game;
+    }
+
+    public int getReadyCount() {
+        return ready.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    // 작업 스레드가 만들던 던전을 마저 넣을 수 있으므로, 스레드가 끝난 뒤에 비운다.
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ready.clear();
+    }
+}
@@ -0,0 +1,122 @@
+package game;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// 시드별로 한 번 생성한 맵(템플릿)을 여러 게임이 공유한다. 게임마다 World.fork()로 바뀌는 칸 배열만 따로 가진다.
+// 템플릿 추정 크기의 합이 maxBytes를 넘으면 가장 오래 안 쓴 것부터 버린다.
+public class DungeonTemplateCache {
+    private static final class Key {
+        final int seed;
+        final int width;
+        final int height;
+        final String generator;
+
+        Key(int seed, int width, int height, String generator) {
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return seed == k.seed && width == k.width && height == k.height && generator.equals(k.generator);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((seed * 31 + width) * 31 + height) * 31 + generator.hashCode();
+        }
+    }
+
+    private final long maxBytes;
+    // 생성 중인 템플릿도 넣어 두어, 같은 시드를 동시에 요청하면 한 번만 생성한다.
+    private final LinkedHashMap<Key, CompletableFuture<World>> templates = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DungeonTemplateCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("템플릿 캐시 크기는 1 이상이어야 합니다: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public World instantiate(int seed, int width, int height, MazeGenerator generator) {
+        Key key = new Key(seed, width, height, generator.getName());
+        CompletableFuture<World> future;
+        boolean build = false;
+        synchronized (this) {
+            future = templates.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                templates.put(key, future);
+                misses++;
+                build = true;
+            } else {
+                hits++;
+            }
+        }
+        if (build) {
+            World template;
+            try {
+                template = Game.buildWorld(seed, width, height, generator, new DungeonGenerator());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    templates.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+            future.complete(template);
+            synchronized (this) {
+                if (templates.get(key) == future) {
+                    bytes += template.estimateBytes();
+                    evict(future);
+                }
+            }
+            return template.fork();
+        }
+        return future.join().fork();
+    }
+
+    // 방금 넣은 템플릿과 아직 생성 중인 것은 남긴다.
+    private void evict(CompletableFuture<World> keep) {
+        Iterator<Map.Entry<Key, CompletableFuture<World>>> it = templates.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            CompletableFuture<World> f = it.next().getValue();
+            if (f == keep || !f.isDone() || f.isCompletedExceptionally()) continue;
+            bytes -= f.join().estimateBytes();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized int getTemplateCount() {
+        return templates.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
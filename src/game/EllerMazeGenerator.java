@@ -0,0 +1,97 @@
+package game;
+
+public class EllerMazeGenerator implements MazeGenerator {
+    public interface RowSink {
+        boolean accept(long y, byte[] exits);
+    }
+
+    @Override
+    public String getName() {
+        return "eller";
+    }
+
+    @Override
+    public void generate(World world, java.util.Random rng) {
+        int width = world.getWidth();
+        stream(width, world.getHeight(), rng, (y, exits) -> {
+            int base = (int) y * width;
+            for (int x = 0; x < width; x++) {
+                world.addExits(base + x, exits[x]);
+            }
+            return true;
+        });
+    }
+
+    // 한 줄씩 만들어 sink로 넘긴다. 메모리는 width에만 비례하므로 height에 Long.MAX_VALUE를 주면 끝없이 이어진다.
+    public void stream(int width, long height, java.util.Random rng, RowSink sink) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("잘못된 미로 크기: " + width + "x" + height);
+        }
+        int[] parent = new int[width];
+        int[] scratch = new int[width];
+        int[] leader = new int[width];
+        boolean[] hasDown = new boolean[width];
+        boolean[] down = new boolean[width];
+        byte[] exits = new byte[width];
+        for (int x = 0; x < width; x++) parent[x] = x;
+
+        for (long y = 0; y < height; y++) {
+            boolean last = y == height - 1;
+            for (int x = 0; x < width; x++) {
+                exits[x] = (byte) (down[x] ? Direction.NORTH.bit() : 0);
+            }
+
+            for (int x = 0; x + 1 < width; x++) {
+                int a = find(parent, x);
+                int b = find(parent, x + 1);
+                if (a != b && (last || rng.nextBoolean())) {
+                    parent[b] = a;
+                    exits[x] |= Direction.EAST.bit();
+                    exits[x + 1] |= Direction.WEST.bit();
+                }
+            }
+
+            if (!last) {
+                java.util.Arrays.fill(scratch, 0);
+                java.util.Arrays.fill(hasDown, false);
+                for (int x = 0; x < width; x++) scratch[find(parent, x)]++;
+                for (int x = 0; x < width; x++) {
+                    int r = find(parent, x);
+                    scratch[r]--;
+                    boolean coin = rng.nextBoolean();
+                    down[x] = coin || (scratch[r] == 0 && !hasDown[r]);
+                    if (down[x]) {
+                        hasDown[r] = true;
+                        exits[x] |= Direction.SOUTH.bit();
+                    }
+                }
+            }
+
+            if (!sink.accept(y, exits) || last) return;
+
+            for (int x = 0; x < width; x++) {
+                scratch[x] = down[x] ? find(parent, x) : -1;
+            }
+            java.util.Arrays.fill(leader, -1);
+            for (int x = 0; x < width; x++) {
+                int r = scratch[x];
+                if (r < 0) {
+                    parent[x] = x;
+                } else if (leader[r] < 0) {
+                    leader[r] = x;
+                    parent[x] = x;
+                } else {
+                    parent[x] = leader[r];
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
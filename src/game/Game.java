@@ -6,37 +6,280 @@ public class Game {
     private boolean running;
     private Room startRoom;
     private int worldSeed;
-    private final java.util.Set<Room> visitedRooms = new java.util.HashSet<>();
-    private final java.util.Map<Room, int[]> roomToCoordinates = new java.util.HashMap<>();
+    private World world;
     private long startTimeMs;
     private long endTimeMs;
     private boolean cleared;
     private java.util.SplittableRandom rng;
+    private final DungeonGenerator dungeonGenerator = new DungeonGenerator();
+    private MazeGenerator mazeGenerator = MazeGenerator.BACKTRACKER;
+    private ChunkedWorld chunks;
+    private Monster lastMonster;
+    private int lastMonsterHealth;
+    private int lastDamageDealt;
+    private int lastDamageTaken;
+    private Item lastItem;
+    private boolean deterministicCombat;
+    private long actionIndex;
+    // 마지막 행동을 기록한 시각. 클리어 시각도 이 값을 써서 행동 기록의 시각과 어긋나지 않게 한다.
+    private long lastActionAtMs;
+    private java.util.function.LongSupplier clock = System::currentTimeMillis;
+    private ActionLog actionLog;
+    private DungeonTemplateCache templates;
 
     public void setupGame(int seedId) {
-        Room[][] grid = new Room[4][4];
-        for (int y = 0; y < 4; y++) {
-            for (int x = 0; x < 4; x++) {
-                String desc = "빈 방";
-                grid[y][x] = new Room(desc);
-                roomToCoordinates.put(grid[y][x], new int[]{x, y});
-            }
+        setupGame(seedId, 4, 4);
+    }
+
+    public void setupGame(int seedId, int width, int height) {
+        setupGame(seedId, width, height, MazeGenerator.BACKTRACKER);
+    }
+
+    public void setupGame(int seedId, int width, int height, MazeGenerator generator) {
+        World world = templates != null
+                ? templates.instantiate(seedId, width, height, generator)
+                : buildWorld(seedId, width, height, generator, dungeonGenerator);
+        closeChunks();
+        begin(seedId, world, generator);
+    }
+
+    static World buildWorld(int seedId, int width, int height, MazeGenerator generator, DungeonGenerator dungeonGenerator) {
+        World world = new World(width, height, "빈 방");
+        dungeonGenerator.generate(world, seedId, generator);
+        world.setNpc(world.cellOf(0, 0), "정찰병", "보스는 남동쪽 어딘가에 있다. 열쇠는 길 위에 있다.");
+        return world;
+    }
+
+    // 설정하면 유한 맵은 캐시의 시드별 템플릿을 공유하고 바뀌는 칸만 게임마다 따로 가진다.
+    public void setTemplateCache(DungeonTemplateCache templates) {
+        this.templates = templates;
+    }
+
+    public void setupOpenWorld(int seedId) {
+        setupOpenWorld(seedId, ChunkedWorld.DEFAULT_CHUNK_SIZE, MazeGenerator.BACKTRACKER);
+    }
+
+    public void setupOpenWorld(int seedId, int chunkSize, MazeGenerator generator) {
+        setupOpenWorld(seedId, chunkSize, generator, Long.MAX_VALUE, null);
+    }
+
+    public void setupOpenWorld(int seedId, int chunkSize, MazeGenerator generator, long memoryBudgetBytes, java.nio.file.Path regionFile) {
+        closeChunks();
+        ChunkedWorld chunks = new ChunkedWorld(seedId, chunkSize, generator, memoryBudgetBytes, regionFile);
+        this.chunks = chunks;
+        begin(seedId, chunks.chunk(0, 0), generator);
+        chunks.prefetchAround(currentRoom);
+    }
+
+    private void closeChunks() {
+        if (chunks != null) {
+            chunks.close();
+            chunks = null;
         }
+    }
+
+    private void begin(int seedId, World world, MazeGenerator generator) {
+        this.mazeGenerator = generator;
+        this.world = world;
         this.worldSeed = seedId;
         this.rng = new java.util.SplittableRandom((((long) seedId) << 32) ^ System.nanoTime());
-        generateRandomDungeon(grid, 4, 4, seedId);
-        this.startRoom = grid[0][0];
-        currentRoom = grid[0][0];
+        this.startRoom = world.room(0, 0);
+        currentRoom = startRoom;
         player = new Player(currentRoom);
         running = true;
-        visitedRooms.clear();
-        visitedRooms.add(currentRoom);
-        startTimeMs = System.currentTimeMillis();
-        endTimeMs = 0L;
+        world.markVisited(currentRoom.getCell());
         cleared = false;
+        actionIndex = 0;
+        actionLog = null;
+        startClock();
+    }
+
+    // 리플레이에서 기록된 시각을 그대로 돌려주기 위해 시계를 바꿔 끼울 수 있게 한다.
+    public void setClock(java.util.function.LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public ActionLog startRecording() {
+        if (chunks != null) {
+            throw new IllegalStateException("오픈 월드는 행동 기록을 지원하지 않습니다.");
+        }
+        if (actionIndex != 0) {
+            throw new IllegalStateException("행동 기록은 첫 행동 전에 시작해야 합니다.");
+        }
+        actionLog = new ActionLog(worldSeed, world.getWidth(), world.getHeight(), mazeGenerator.getName(), deterministicCombat);
+        return actionLog;
+    }
+
+    public ActionLog getActionLog() {
+        return actionLog;
+    }
+
+    private void record(Action action) {
+        actionIndex++;
+        lastActionAtMs = clock.getAsLong();
+        if (actionLog != null) {
+            actionLog.append(action, lastActionAtMs - startTimeMs);
+        }
+    }
+
+    private static final int SNAPSHOT_MAGIC = 0x534e4150;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // 시드로 다시 만들 수 있는 맵은 빼고 플레이어 상태와 바뀐 칸만 담는다. 4x4 맵이면 보통 100바이트 안팎.
+    // 비결정 모드의 전투 난수와 행동 기록은 담지 않는다.
+    public byte[] snapshot() {
+        if (chunks != null) {
+            throw new IllegalStateException("오픈 월드는 스냅샷을 지원하지 않습니다.");
+        }
+        if (world.size() > ScoreVerifier.MAX_CELLS) {
+            throw new IllegalStateException("스냅샷으로 저장하기에 너무 큰 맵입니다: " + world.getWidth() + "x" + world.getHeight());
+        }
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream(128);
+        out.write(SNAPSHOT_MAGIC >>> 24);
+        out.write(SNAPSHOT_MAGIC >>> 16);
+        out.write(SNAPSHOT_MAGIC >>> 8);
+        out.write(SNAPSHOT_MAGIC);
+        World.writeVarint(out, SNAPSHOT_VERSION);
+        World.writeVarint(out, ((worldSeed << 1) ^ (worldSeed >> 31)) & 0xffffffffL);
+        World.writeVarint(out, world.getWidth());
+        World.writeVarint(out, world.getHeight());
+        byte[] name = mazeGenerator.getName().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        World.writeVarint(out, name.length);
+        out.write(name, 0, name.length);
+        int state = (running ? 1 : 0) | (cleared ? 2 : 0) | (deterministicCombat ? 4 : 0) | (endTimeMs > 0 ? 8 : 0);
+        World.writeVarint(out, state);
+        World.writeVarint(out, actionIndex);
+        World.writeVarint(out, getElapsedMillis());
+        World.writeVarint(out, currentRoom.getCell());
+        World.writeVarint(out, player.getHealth());
+        World.writeVarint(out, player.getWeaponBonusDamage());
+        java.util.Random attackRng = player.getAttackRng();
+        if (attackRng instanceof LcgRandom) {
+            World.writeVarint(out, 1);
+            World.writeVarint(out, ((LcgRandom) attackRng).getState());
+        } else {
+            World.writeVarint(out, 0);
+        }
+        java.util.List<Item> inventory = player.getInventory();
+        World.writeVarint(out, inventory.size());
+        for (Item item : inventory) {
+            int id = world.itemIdOf(item);
+            World.writeVarint(out, id);
+            if (id == 0) {
+                byte[] n = item.getName().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                World.writeVarint(out, n.length);
+                out.write(n, 0, n.length);
+            }
+        }
+        world.writeDelta(out);
+        return out.toByteArray();
+    }
+
+    // 같은 시드로 맵을 다시 생성한 뒤 스냅샷의 상태를 덮어쓴다. 경과 시간은 복원 시점부터 이어서 잰다.
+    public static Game restore(byte[] data) {
+        return restore(data, null);
     }
 
-    private int rollTriangular(int minInclusive, int maxInclusive) {
+    public static Game restore(byte[] data, DungeonTemplateCache templates) {
+        java.nio.ByteBuffer in = java.nio.ByteBuffer.wrap(data);
+        try {
+            if (in.getInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalArgumentException("스냅샷이 아닙니다.");
+            }
+            int version = (int) World.readVarint(in);
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 스냅샷 버전: " + version);
+            }
+            int zz = (int) World.readVarint(in);
+            int seed = (zz >>> 1) ^ -(zz & 1);
+            // 맵을 만들기 전에 크기부터 확인한다. 검증 없이 믿으면 깨진 스냅샷 하나로 메모리가 바닥난다.
+            long width = World.readVarint(in);
+            long height = World.readVarint(in);
+            if (width < 1 || height < 1 || width > ScoreVerifier.MAX_CELLS || height > ScoreVerifier.MAX_CELLS
+                    || width * height > ScoreVerifier.MAX_CELLS) {
+                throw new IllegalArgumentException("스냅샷 형식 오류: 맵 크기 " + width + "x" + height);
+            }
+            byte[] name = new byte[readLength(in)];
+            in.get(name);
+            MazeGenerator generator = MazeGenerator.byName(new String(name, java.nio.charset.StandardCharsets.UTF_8));
+            int state = (int) World.readVarint(in);
+
+            Game game = new Game();
+            game.setTemplateCache(templates);
+            game.setupGame(seed, (int) width, (int) height, generator);
+            game.deterministicCombat = (state & 4) != 0;
+            game.running = (state & 1) != 0;
+            game.cleared = (state & 2) != 0;
+            game.actionIndex = World.readVarint(in);
+            long elapsed = World.readVarint(in);
+            game.startTimeMs = game.clock.getAsLong() - elapsed;
+            game.endTimeMs = (state & 8) != 0 ? game.startTimeMs + elapsed : 0L;
+            int cell = (int) World.readVarint(in);
+            if (cell < 0 || cell >= game.world.size()) {
+                throw new IllegalArgumentException("스냅샷 형식 오류: 현재 칸 " + cell);
+            }
+            int health = (int) World.readVarint(in);
+            int weaponBonus = (int) World.readVarint(in);
+            java.util.Random attackRng = World.readVarint(in) != 0 ? LcgRandom.ofState(World.readVarint(in)) : new java.util.Random();
+            int count = readLength(in);
+            java.util.List<Item> items = new java.util.ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = (int) World.readVarint(in);
+                if (id != 0) {
+                    items.add(game.world.itemById(id));
+                } else {
+                    byte[] n = new byte[readLength(in)];
+                    in.get(n);
+                    items.add(new Item(new String(n, java.nio.charset.StandardCharsets.UTF_8), ""));
+                }
+            }
+            game.world.readDelta(in);
+            game.currentRoom = game.world.room(cell);
+            game.player = new Player(game.currentRoom);
+            game.player.restore(health, weaponBonus, items, attackRng);
+            return game;
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new IllegalArgumentException("스냅샷이 잘렸습니다.", e);
+        }
+    }
+
+    // 길이나 개수는 항목마다 1바이트 이상이므로 남은 바이트 수를 넘을 수 없다.
+    private static int readLength(java.nio.ByteBuffer in) {
+        long n = World.readVarint(in);
+        if (n < 0 || n > in.remaining()) {
+            throw new IllegalArgumentException("스냅샷 형식 오류: 길이 " + n);
+        }
+        return (int) n;
+    }
+
+    // 켜면 전투 난수를 (worldSeed, 행동 번호)에서 뽑으므로 같은 시드와 같은 명령 순서면 결과가 항상 같다.
+    public void setDeterministicCombat(boolean deterministicCombat) {
+        this.deterministicCombat = deterministicCombat;
+    }
+
+    public boolean isDeterministicCombat() {
+        return deterministicCombat;
+    }
+
+    public long getActionIndex() {
+        return actionIndex;
+    }
+
+    public static long combatSeed(int worldSeed, long actionIndex) {
+        return ChunkedWorld.mix(ChunkedWorld.mix(((long) worldSeed << 32) ^ 0x636f6d626174L) ^ actionIndex);
+    }
+
+    private java.util.SplittableRandom combatRng() {
+        return deterministicCombat ? new java.util.SplittableRandom(combatSeed(worldSeed, actionIndex)) : rng;
+    }
+
+    // 미리 만들어 둔 던전을 꺼내 쓸 때, 생성 시각이 아니라 실제 시작 시각부터 기록을 잰다.
+    public void startClock() {
+        startTimeMs = clock.getAsLong();
+        endTimeMs = 0L;
+    }
+
+    private static int rollTriangular(java.util.SplittableRandom rng, int minInclusive, int maxInclusive) {
         int a = rng.nextInt(minInclusive, maxInclusive + 1);
         int b = rng.nextInt(minInclusive, maxInclusive + 1);
         return (a + b) / 2;
@@ -46,6 +289,39 @@ public class Game {
         return worldSeed;
     }
 
+    public int getWidth() {
+        return chunks != null ? Integer.MAX_VALUE : world.getWidth();
+    }
+
+    public int getHeight() {
+        return chunks != null ? Integer.MAX_VALUE : world.getHeight();
+    }
+
+    public boolean isOpenWorld() {
+        return chunks != null;
+    }
+
+    public ChunkedWorld getChunks() {
+        return chunks;
+    }
+
+    public World worldAt(int x, int y) {
+        if (chunks != null) return chunks.loadedChunkContaining(x, y);
+        return world.inBounds(x, y) ? world : null;
+    }
+
+    public World getWorld() {
+        return chunks != null ? currentRoom.getWorld() : world;
+    }
+
+    public MazeGenerator getMazeGenerator() {
+        return mazeGenerator;
+    }
+
+    public long getMazeGenerationNanos() {
+        return chunks != null ? chunks.getMazeGenerationNanos() : dungeonGenerator.getMazeGenerationNanos();
+    }
+
     public String getCurrentDescription() {
         StringBuilder sb = new StringBuilder();
         sb.append(currentRoom.getDescription());
@@ -80,10 +356,167 @@ public class Game {
     }
 
     public long getElapsedMillis() {
-        long end = endTimeMs > 0 ? endTimeMs : System.currentTimeMillis();
+        long end = endTimeMs > 0 ? endTimeMs : clock.getAsLong();
         return Math.max(0L, end - startTimeMs);
     }
 
+    // 문자열 없이 규칙만 적용한다. 전투 수치 등 부가 결과는 getLast* 로 읽는다.
+    public Outcome apply(Action action) {
+        record(action);
+        switch (action.getType()) {
+            case MOVE: return move(action.getDirection());
+            case PICK_UP: return take(action.getItemName());
+            case USE: return use(action.getItemName());
+            case EQUIP: return equip(action.getItemName());
+            case ATTACK: return strike();
+            case TALK: return currentRoom.hasNpc() ? Outcome.TALKED : Outcome.NO_TARGET;
+            case NOOP: return Outcome.IGNORED;
+            default:
+                running = false;
+                return Outcome.QUIT;
+        }
+    }
+
+    private Outcome move(Direction d) {
+        Monster cur = currentRoom.getMonster();
+        if (cur != null && !cur.isDead()) {
+            lastMonster = cur;
+            return Outcome.BLOCKED;
+        }
+        Room nextRoom = d == null ? null : currentRoom.getExit(d);
+        if (nextRoom == null) {
+            return Outcome.NO_EXIT;
+        }
+        if (nextRoom.isLocked()) {
+            return Outcome.LOCKED;
+        }
+        currentRoom = nextRoom;
+        player.moveTo(nextRoom);
+        currentRoom.getWorld().markVisited(currentRoom.getCell());
+        if (chunks != null) {
+            chunks.prefetchAround(currentRoom);
+        }
+        return Outcome.MOVED;
+    }
+
+    private Outcome take(String itemName) {
+        Item item = currentRoom.takeItemByName(itemName);
+        if (item == null) {
+            return Outcome.NOT_FOUND;
+        }
+        lastItem = item;
+        player.addItem(item);
+        if (item.getName().equalsIgnoreCase("보물")) {
+            running = false;
+            cleared = true;
+            endTimeMs = lastActionAtMs;
+            return Outcome.CLEARED;
+        }
+        return Outcome.PICKED_UP;
+    }
+
+    private Outcome use(String itemName) {
+        Room north = currentRoom.getExit(Direction.NORTH);
+        Room south = currentRoom.getExit(Direction.SOUTH);
+        Room east = currentRoom.getExit(Direction.EAST);
+        Room west = currentRoom.getExit(Direction.WEST);
+
+        boolean hadItem = player.removeItemByName(itemName);
+        if (!hadItem) {
+            return Outcome.NOT_HELD;
+        }
+
+        if ("포션".equalsIgnoreCase(itemName)) {
+            int heal = 100 - player.getHealth();
+            if (heal > 0) player.heal(heal);
+            return Outcome.HEALED;
+        }
+
+        Room[] neighbors = new Room[] { north, south, east, west };
+        for (Room r : neighbors) {
+            if (r != null && r.isLocked()) {
+                if (r.unlock(itemName)) {
+                    return Outcome.UNLOCKED;
+                }
+            }
+        }
+        player.addItem(new Item(itemName, ""));
+        return Outcome.NOT_USABLE;
+    }
+
+    private Outcome equip(String itemName) {
+        return player.equipWeapon(itemName) ? Outcome.EQUIPPED : Outcome.NOT_EQUIPPABLE;
+    }
+
+    private Outcome strike() {
+        Monster m = currentRoom.getMonster();
+        lastDamageDealt = 0;
+        lastDamageTaken = 0;
+        if (m == null) {
+            return Outcome.NO_TARGET;
+        }
+        lastMonster = m;
+        java.util.SplittableRandom rng = combatRng();
+        int base = 9; // 평균치(기존 8~10의 중앙)
+        int variance = rollTriangular(rng, -2, 2);
+        int dmg = Math.max(0, base + player.getWeaponBonusDamage() + variance);
+        m.damage(dmg);
+        lastDamageDealt = dmg;
+        lastMonsterHealth = m.getHealth();
+        if (m.isDead()) {
+            currentRoom.clearMonster();
+            if (m.isBoss()) {
+                running = false;
+                cleared = true;
+                endTimeMs = lastActionAtMs;
+                return Outcome.CLEARED;
+            }
+            return Outcome.KILLED;
+        }
+        int monsterBase = m.getAttackDamage();
+        int monsterVar = rollTriangular(rng, -2, 2);
+        int monsterHit = Math.max(0, monsterBase + monsterVar);
+        player.damage(monsterHit);
+        lastDamageTaken = monsterHit;
+        if (player.getHealth() <= 0) {
+            running = false;
+            return Outcome.PLAYER_DIED;
+        }
+        return Outcome.HIT;
+    }
+
+    public Monster getLastMonster() {
+        return lastMonster;
+    }
+
+    public int getLastMonsterHealth() {
+        return lastMonsterHealth;
+    }
+
+    public int getLastDamageDealt() {
+        return lastDamageDealt;
+    }
+
+    public int getLastDamageTaken() {
+        return lastDamageTaken;
+    }
+
+    public Item getLastItem() {
+        return lastItem;
+    }
+
+    public int getPlayerHealth() {
+        return player.getHealth();
+    }
+
+    public int getWeaponBonusDamage() {
+        return player.getWeaponBonusDamage();
+    }
+
+    public boolean hasInventoryItem(String itemName) {
+        return player.hasItemByName(itemName);
+    }
+
     public String handleCommand(String input) {
         if (input == null) return "";
         String trimmed = input.trim();
@@ -93,6 +526,7 @@ public class Game {
         String command = words[0];
         int spaceIdx = trimmed.indexOf(' ');
         String arg = spaceIdx >= 0 ? trimmed.substring(spaceIdx + 1) : null;
+        record(toAction(command, words, arg));
 
         switch (command) {
             case "종료":
@@ -122,8 +556,8 @@ public class Game {
                 }
             case "장착":
                 if (arg != null) {
-                    boolean ok = player.equipWeapon(arg);
-                    if (ok) {
+                    if (equip(arg) == Outcome.EQUIPPED) {
+                        if (deterministicCombat) player.reseedAttack(combatSeed(worldSeed, actionIndex));
                         return "" + arg + "을(를) 장착했습니다. (공격력: " + (player.getAttackDamage()+3) + ")";
                     } else {
                         return "장착할 수 없습니다. 인벤토리에 없거나 무기가 아닙니다.";
@@ -142,81 +576,79 @@ public class Game {
         }
     }
 
-    public String movePlayer(String direction) {
-        Monster cur = currentRoom.getMonster();
-        if (cur != null && !cur.isDead()) {
-            return "몬스터가 길을 가로막습니다. 먼저 처치하세요. (몬스터: " + cur.getName() + ")";
+    // 문자열 명령을 기록/리플레이용 행동으로 바꾼다. 상태를 바꾸지 않는 명령은 NOOP.
+    private static Action toAction(String command, String[] words, String arg) {
+        switch (command) {
+            case "종료":
+                return Action.QUIT;
+            case "이동":
+                Direction d = words.length > 1 ? Direction.fromLabel(words[1]) : null;
+                return d != null ? Action.move(d) : Action.NOOP;
+            case "줍기":
+                return arg != null ? Action.pickUp(arg) : Action.NOOP;
+            case "사용":
+                return arg != null ? Action.use(arg) : Action.NOOP;
+            case "장착":
+                return arg != null ? Action.equip(arg) : Action.NOOP;
+            case "대화":
+                return Action.TALK;
+            case "공격":
+                return Action.ATTACK;
+            default:
+                return Action.NOOP;
         }
-        Room nextRoom = currentRoom.getExit(direction);
-        if (nextRoom != null) {
-            if (nextRoom.isLocked()) {
+    }
+
+    public String movePlayer(String direction) {
+        switch (move(Direction.fromLabel(direction))) {
+            case BLOCKED:
+                return "몬스터가 길을 가로막습니다. 먼저 처치하세요. (몬스터: " + lastMonster.getName() + ")";
+            case NO_EXIT:
+                return "그 방향으로는 갈 수 없습니다.";
+            case LOCKED:
                 return "문이 잠겨 있습니다. 무언가가 필요해 보입니다.";
+            default:
+                break;
+        }
+        String desc = currentRoom.getDescription();
+        Monster mHere = currentRoom.getMonster();
+        if (mHere != null && !mHere.isDead()) {
+            desc += System.lineSeparator() + "몬스터가 나타났다: " + mHere.getName() + " (체력 " + mHere.getHealth() + ")";
+        }
+        boolean nearBoss = false;
+        for (Room r : new Room[]{currentRoom.getExit("북쪽"), currentRoom.getExit("남쪽"), currentRoom.getExit("동쪽"), currentRoom.getExit("서쪽")}) {
+            if (r != null && r.getMonster() != null && r.getMonster().isBoss()) {
+                nearBoss = true; break;
             }
-            currentRoom = nextRoom;
-            player.moveTo(nextRoom);
-            visitedRooms.add(currentRoom);
-            String desc = currentRoom.getDescription();
-            Monster mHere = currentRoom.getMonster();
-            if (mHere != null && !mHere.isDead()) {
-                desc += System.lineSeparator() + "몬스터가 나타났다: " + mHere.getName() + " (체력 " + mHere.getHealth() + ")";
-            }
-            boolean nearBoss = false;
-            for (Room r : new Room[]{currentRoom.getExit("북쪽"), currentRoom.getExit("남쪽"), currentRoom.getExit("동쪽"), currentRoom.getExit("서쪽")}) {
-                if (r != null && r.getMonster() != null && r.getMonster().isBoss()) {
-                    nearBoss = true; break;
-                }
-            }
-            if (nearBoss) {
-                desc += System.lineSeparator() + "강한 기운이 느껴진다. 보스의 기척이 가까이 있다!";
-            }
-            return desc;
-        } else {
-            return "그 방향으로는 갈 수 없습니다.";
         }
+        if (nearBoss) {
+            desc += System.lineSeparator() + "강한 기운이 느껴진다. 보스의 기척이 가까이 있다!";
+        }
+        return desc;
     }
 
     public String pickUp(String itemName) {
-        Item item = currentRoom.takeItemByName(itemName);
-        if (item == null) {
-            return "그런 아이템은 여기 없습니다.";
-        }
-        player.addItem(item);
-        if (item.getName().equalsIgnoreCase("보물")) {
-            running = false;
-            cleared = true;
-            endTimeMs = System.currentTimeMillis();
-            return "보물을 획득했습니다! 축하합니다. 게임 클리어!";
+        switch (take(itemName)) {
+            case NOT_FOUND:
+                return "그런 아이템은 여기 없습니다.";
+            case CLEARED:
+                return "보물을 획득했습니다! 축하합니다. 게임 클리어!";
+            default:
+                return lastItem.getName() + "을(를) 주웠습니다.";
         }
-        return item.getName() + "을(를) 주웠습니다.";
     }
 
     public String useItem(String itemName) {
-        Room north = currentRoom.getExit("북쪽");
-        Room south = currentRoom.getExit("남쪽");
-        Room east = currentRoom.getExit("동쪽");
-        Room west = currentRoom.getExit("서쪽");
-
-        boolean hadItem = player.removeItemByName(itemName);
-        if (!hadItem) {
-            return "그 아이템을 가지고 있지 않습니다.";
-        }
-
-        if ("포션".equalsIgnoreCase(itemName)) {
-            int heal = 100 - player.getHealth();
-            if (heal > 0) player.heal(heal);
-            return "포션을 사용했습니다. 체력이 모두 회복되었습니다. (체력: " + player.getHealth() + ")";
-        }
-
-        Room[] neighbors = new Room[] { north, south, east, west };
-        for (Room r : neighbors) {
-            if (r != null && r.isLocked()) {
-                if (r.unlock(itemName)) {
-                    return "문이 열렸습니다.";
-                }
-            }
+        switch (use(itemName)) {
+            case NOT_HELD:
+                return "그 아이템을 가지고 있지 않습니다.";
+            case HEALED:
+                return "포션을 사용했습니다. 체력이 모두 회복되었습니다. (체력: " + player.getHealth() + ")";
+            case UNLOCKED:
+                return "문이 열렸습니다.";
+            default:
+                return "여기서는 그 아이템을 사용할 수 없습니다.";
         }
-        player.addItem(new Item(itemName, ""));
-        return "여기서는 그 아이템을 사용할 수 없습니다.";
     }
 
     public String talk() {
@@ -224,35 +656,25 @@ public class Game {
     }
 
     public String attack() {
-        Monster m = currentRoom.getMonster();
-        if (m == null) {
+        Outcome outcome = strike();
+        if (outcome == Outcome.NO_TARGET) {
             return "공격할 대상이 없습니다.";
         }
-        int base = 9; // 평균치(기존 8~10의 중앙)
-        int variance = rollTriangular(-2, 2);
-        int dmg = Math.max(0, base + player.getWeaponBonusDamage() + variance);
-        m.damage(dmg);
+        Monster m = lastMonster;
         StringBuilder sb = new StringBuilder();
-        sb.append(m.getName()).append("에게 ").append(dmg).append("의 피해를 입혔습니다. (남은 체력: ").append(m.getHealth()).append(")");
-        if (m.isDead()) {
-            currentRoom.clearMonster();
-            if (m.isBoss()) {
-                running = false;
-                cleared = true;
-                endTimeMs = System.currentTimeMillis();
+        sb.append(m.getName()).append("에게 ").append(lastDamageDealt).append("의 피해를 입혔습니다. (남은 체력: ").append(lastMonsterHealth).append(")");
+        switch (outcome) {
+            case CLEARED:
                 sb.append(System.lineSeparator()).append("보스를 처치했습니다! 게임 클리어!");
-            } else {
+                return sb.toString();
+            case KILLED:
                 sb.append(System.lineSeparator()).append("적을 물리쳤습니다.");
-            }
-            return sb.toString();
+                return sb.toString();
+            default:
+                break;
         }
-        int monsterBase = m.getAttackDamage();
-        int monsterVar = rollTriangular(-2, 2);
-        int monsterHit = Math.max(0, monsterBase + monsterVar); 
-        player.damage(monsterHit);
-        sb.append(System.lineSeparator()).append(m.getName()).append("의 반격! ").append(monsterHit).append(" 피해를 입었습니다. (체력: ").append(player.getHealth()).append(")");
-        if (player.getHealth() <= 0) {
-            running = false;
+        sb.append(System.lineSeparator()).append(m.getName()).append("의 반격! ").append(lastDamageTaken).append(" 피해를 입었습니다. (체력: ").append(player.getHealth()).append(")");
+        if (outcome == Outcome.PLAYER_DIED) {
             sb.append(System.lineSeparator()).append("당신은 쓰러졌습니다. 게임 오버.");
         }
         return sb.toString();
@@ -310,316 +732,12 @@ public class Game {
         return currentRoom;
     }
 
+    // 열린 세계에서도 setupOpenWorld 때 잡아 둔 방을 돌려준다. 조회만으로 청크를 만들거나 다시 읽지 않는다.
     public Room getStartRoomRef() {
         return startRoom;
     }
 
-    public java.util.Set<Room> getVisitedRooms() {
-        return java.util.Collections.unmodifiableSet(visitedRooms);
-    }
-
-    public java.util.Map<Room, int[]> getRoomCoordinates() {
-        return java.util.Collections.unmodifiableMap(roomToCoordinates);
-    }
-
-    private void connect(Room[][] grid, int x1, int y1, int x2, int y2) {
-        Room a = grid[y1][x1];
-        Room b = grid[y2][x2];
-        if (x2 == x1 + 1 && y2 == y1) {
-            a.setExit("동쪽", b);
-            b.setExit("서쪽", a);
-        } else if (x2 == x1 - 1 && y2 == y1) {
-            a.setExit("서쪽", b);
-            b.setExit("동쪽", a);
-        } else if (y2 == y1 + 1 && x2 == x1) {
-            a.setExit("남쪽", b);
-            b.setExit("북쪽", a);
-        } else if (y2 == y1 - 1 && x2 == x1) {
-            a.setExit("북쪽", b);
-            b.setExit("남쪽", a);
-        }
-    }
-
-    private void generateRandomDungeon(Room[][] grid, int width, int height, long seed) {
-        java.util.Random rng = new java.util.Random(seed);
-        carveMazeWithBacktracker(grid, width, height, rng);
-        addRandomLoops(grid, width, height, 2, rng);
-        assignDescriptions(grid, width, height, rng);
-        placeBossKeyMonstersAndItems(grid, width, height, rng);
-        grid[0][0].setNpc("정찰병", "보스는 남동쪽 어딘가에 있다. 열쇠는 길 위에 있다.");
-    }
-
-    private void carveMazeWithBacktracker(Room[][] grid, int width, int height, java.util.Random rng) {
-        boolean[][] visited = new boolean[height][width];
-        java.util.Deque<int[]> stack = new java.util.ArrayDeque<>();
-        int cx = 0, cy = 0;
-        visited[cy][cx] = true;
-        stack.push(new int[]{cx, cy});
-
-        while (!stack.isEmpty()) {
-            cx = stack.peek()[0];
-            cy = stack.peek()[1];
-
-            int[][] dirs = new int[][] { {1,0}, {-1,0}, {0,1}, {0,-1} };
-            shuffleArray(dirs, rng);
-
-            boolean moved = false;
-            for (int[] d : dirs) {
-                int nx = cx + d[0];
-                int ny = cy + d[1];
-                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
-                if (visited[ny][nx]) continue;
-                connect(grid, cx, cy, nx, ny);
-                visited[ny][nx] = true;
-                stack.push(new int[]{nx, ny});
-                moved = true;
-                break;
-            }
-            if (!moved) {
-                stack.pop();
-            }
-        }
-    }
-
-    private void addRandomLoops(Room[][] grid, int width, int height, int loopCount, java.util.Random rng) {
-        for (int i = 0; i < loopCount; i++) {
-            int x = rng.nextInt(width);
-            int y = rng.nextInt(height);
-            int[][] dirs = new int[][] { {1,0}, {-1,0}, {0,1}, {0,-1} };
-            shuffleArray(dirs, rng);
-            for (int[] d : dirs) {
-                int nx = x + d[0];
-                int ny = y + d[1];
-                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
-                connect(grid, x, y, nx, ny);
-                break;
-            }
-        }
-    }
-
-    private void assignDescriptions(Room[][] grid, int width, int height, java.util.Random rng) {
-        String[] early = new String[] {
-            "낡은 회랑. 낮은 속삭임이 들린다.",
-            "작은 전당. 촛불이 깜빡인다.",
-            "좁은 복도. 먼지가 뿌옇다."
-        };
-        String[] mid = new String[] {
-            "축축한 회랑. 시체가 꿈틀거린다.",
-            "파손된 무기고. 철 냄새가 난다.",
-            "갈라진 바닥. 발밑에서 바람이 샌다."
-        };
-        String[] late = new String[] {
-            "큰 전투의 흔적. 땅이 움푹 패였다.",
-            "어두운 복도. 긴장감이 감돈다.",
-            "침식된 전당. 바닥이 끈적거린다."
-        };
-
-        int[][] dist = computeDistanceMap(grid, width, height, 0, 0);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x == 0 && y == 0) {
-                    grid[y][x].setDescription("성의 후문. 사방이 낡아 보인다.");
-                    continue;
-                }
-                int d = dist[y][x];
-                String txt;
-                if (d <= 2) {
-                    txt = early[rng.nextInt(early.length)];
-                } else if (d <= 4) {
-                    txt = mid[rng.nextInt(mid.length)];
-                } else {
-                    txt = late[rng.nextInt(late.length)];
-                }
-                grid[y][x].setDescription(txt);
-            }
-        }
-    }
-
-    private void placeBossKeyMonstersAndItems(Room[][] grid, int width, int height, java.util.Random rng) {
-        int[][] dist = computeDistanceMap(grid, width, height, 0, 0);
-        int bx = 0, by = 0, maxd = -1;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (dist[y][x] > maxd) { maxd = dist[y][x]; bx = x; by = y; }
-            }
-        }
-        java.util.List<int[]> path = shortestPath(grid, width, height, 0, 0, bx, by);
-        Room bossRoom = grid[by][bx];
-        bossRoom.setDescription("☠️ 보스의 방! 어둠의 기운이 요동친다.");
-        bossRoom.setMonster(new Monster("☠️ 어둠의 군주", 60, 8, true));
-        bossRoom.lockWithItem("보스열쇠");
-
-        int keyX = -1, keyY = -1;
-        if (path.size() >= 3) {
-            java.util.List<Integer> candidates = new java.util.ArrayList<>();
-            for (int i = 1; i <= path.size() - 2; i++) candidates.add(i);
-            java.util.Collections.shuffle(candidates, rng);
-            for (int idx : candidates) {
-                int[] k = path.get(idx);
-                Room r = grid[k[1]][k[0]];
-                if (canPlaceItem(r)) {
-                    r.addItem(new Item("보스열쇠", "보스의 방을 여는 열쇠."));
-                    keyX = k[0]; keyY = k[1];
-                    break;
-                }
-            }
-        }
-        if (keyX == -1) {
-            outer: for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    if ((x == 0 && y == 0) || (x == bx && y == by)) continue;
-                    Room r = grid[y][x];
-                    if (canPlaceItem(r)) { r.addItem(new Item("보스열쇠", "보스의 방을 여는 열쇠.")); keyX = x; keyY = y; break outer; }
-                }
-            }
-        }
-
-        java.util.List<int[]> deadEnds = new java.util.ArrayList<>();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int exits = grid[y][x].getExits().size();
-                if (!(x == 0 && y == 0) && exits <= 1) deadEnds.add(new int[]{x,y});
-            }
-        }
-        if (!deadEnds.isEmpty()) {
-            java.util.Collections.shuffle(deadEnds, rng);
-            for (int[] de : deadEnds) {
-                Room r = grid[de[1]][de[0]];
-                if (canPlaceItem(r)) { r.addItem(new Item("금화", "빛나는 금화 몇 닢.")); break; }
-            }
-        }
-        if (path.size() > 1) {
-            String weaponName = rng.nextBoolean() ? "장검" : "단검";
-            String weaponDesc = "장검".equals(weaponName) ? "묵직한 장검." : "가벼운 무기.";
-            for (int i = 1; i < path.size(); i++) {
-                int[] p = path.get(i);
-                if ((p[0] == bx && p[1] == by) || (p[0] == keyX && p[1] == keyY)) continue;
-                Room r = grid[p[1]][p[0]];
-                if (canPlaceItem(r)) { r.addItem(new Item(weaponName, weaponDesc)); break; }
-            }
-        }
-        if (path.size() > 2) {
-            int midIdx = path.size() / 2;
-            int[] midp = path.get(midIdx);
-            Room rMid = grid[midp[1]][midp[0]];
-            if (canPlaceItem(rMid) && !(midp[0] == keyX && midp[1] == keyY)) {
-                rMid.addItem(new Item("포션", "체력을 회복(연출용)."));
-            } else {
-                for (int i = 1; i < path.size() - 1; i++) {
-                    int[] p = path.get(i);
-                    if ((p[0] == keyX && p[1] == keyY)) continue;
-                    Room r = grid[p[1]][p[0]];
-                    if (canPlaceItem(r)) { r.addItem(new Item("포션", "체력을 회복(연출용).")); break; }
-                }
-            }
-        }
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x == 0 && y == 0) continue;
-                if (x == bx && y == by) continue;
-                Room r = grid[y][x];
-                boolean hasKey = false;
-                for (Item it : r.getItems()) { if ("보스열쇠".equals(it.getName())) { hasKey = true; break; } }
-                if (hasKey) continue;
-                if (!canPlaceMonster(r)) continue;
-
-                int d = dist[y][x];
-                double p;
-                String name;
-                int hp, atk;
-                if (d <= 2) { p = 0.35; name = "🦊 야생 늑대"; hp = 16; atk = 4; }
-                else if (d <= 4) { p = 0.45; name = "💀 해골 병사"; hp = 22; atk = 5; }
-                else { p = 0.55; name = "🐮 미노타우로스"; hp = 35; atk = 7; }
-                if (rng.nextDouble() < p) {
-                    r.setMonster(new Monster(name, hp, atk, false));
-                }
-            }
-        }
-    }
-
-    private boolean canPlaceItem(Room r) {
-        return r.getMonster() == null && r.getItems().isEmpty();
-    }
-
-    private boolean canPlaceMonster(Room r) {
-        return r.getMonster() == null && r.getItems().isEmpty();
-    }
-
-    private int[][] computeDistanceMap(Room[][] grid, int width, int height, int sx, int sy) {
-        int[][] dist = new int[height][width];
-        for (int y = 0; y < height; y++) java.util.Arrays.fill(dist[y], -1);
-        java.util.ArrayDeque<int[]> q = new java.util.ArrayDeque<>();
-        dist[sy][sx] = 0;
-        q.add(new int[]{sx, sy});
-        while (!q.isEmpty()) {
-            int[] c = q.removeFirst();
-            int x = c[0], y = c[1];
-            Room room = grid[y][x];
-            int[][] neigh = new int[][] { {x+1,y,"동쪽".hashCode()}, {x-1,y,"서쪽".hashCode()}, {x,y+1,"남쪽".hashCode()}, {x,y-1,"북쪽".hashCode()} };
-            if (room.getExit("동쪽") == null) neigh[0][0] = Integer.MIN_VALUE;
-            if (room.getExit("서쪽") == null) neigh[1][0] = Integer.MIN_VALUE;
-            if (room.getExit("남쪽") == null) neigh[2][0] = Integer.MIN_VALUE;
-            if (room.getExit("북쪽") == null) neigh[3][0] = Integer.MIN_VALUE;
-            for (int[] n : neigh) {
-                int nx = n[0];
-                int ny = n[1];
-                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
-                if (dist[ny][nx] != -1) continue;
-                dist[ny][nx] = dist[y][x] + 1;
-                q.add(new int[]{nx, ny});
-            }
-        }
-        return dist;
-    }
-
-    private java.util.List<int[]> shortestPath(Room[][] grid, int width, int height, int sx, int sy, int tx, int ty) {
-        int[][] dist = new int[height][width];
-        for (int y = 0; y < height; y++) java.util.Arrays.fill(dist[y], -1);
-        int[][] px = new int[height][width];
-        int[][] py = new int[height][width];
-        java.util.ArrayDeque<int[]> q = new java.util.ArrayDeque<>();
-        dist[sy][sx] = 0; px[sy][sx] = -1; py[sy][sx] = -1;
-        q.add(new int[]{sx, sy});
-        while (!q.isEmpty()) {
-            int[] c = q.removeFirst();
-            int x = c[0], y = c[1];
-            if (x == tx && y == ty) break;
-            Room room = grid[y][x];
-            int[][] neigh = new int[][] { {x+1,y,"동쪽".hashCode()}, {x-1,y,"서쪽".hashCode()}, {x,y+1,"남쪽".hashCode()}, {x,y-1,"북쪽".hashCode()} };
-            if (room.getExit("동쪽") == null) neigh[0][0] = Integer.MIN_VALUE;
-            if (room.getExit("서쪽") == null) neigh[1][0] = Integer.MIN_VALUE;
-            if (room.getExit("남쪽") == null) neigh[2][0] = Integer.MIN_VALUE;
-            if (room.getExit("북쪽") == null) neigh[3][0] = Integer.MIN_VALUE;
-            for (int[] n : neigh) {
-                int nx = n[0];
-                int ny = n[1];
-                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
-                if (dist[ny][nx] != -1) continue;
-                dist[ny][nx] = dist[y][x] + 1;
-                px[ny][nx] = x; py[ny][nx] = y;
-                q.add(new int[]{nx, ny});
-            }
-        }
-        java.util.LinkedList<int[]> path = new java.util.LinkedList<>();
-        int x = tx, y = ty;
-        if (dist[ty][tx] == -1) return path;
-        while (x != -1 && y != -1) {
-            path.addFirst(new int[]{x, y});
-            int nx = px[y][x];
-            int ny = py[y][x];
-            x = nx; y = ny;
-        }
-        return path;
+    public boolean isVisited(Room room) {
+        return room.getWorld().isVisited(room.getCell());
     }
-
-    private void shuffleArray(int[][] arr, java.util.Random rng) {
-        for (int i = arr.length - 1; i > 0; i--) {
-            int j = rng.nextInt(i + 1);
-            int[] tmp = arr[i];
-            arr[i] = arr[j];
-            arr[j] = tmp;
-        }
-    }
-
 }
@@ -0,0 +1,551 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// 한 JVM에서 여러 Game 세션을 돌린다. 세션마다 메일박스가 있어 같은 세션의 명령은 한 번에 하나씩, 순서대로 실행된다.
+public class GameServer implements AutoCloseable {
+    // 한 세션이 작업자 스레드를 오래 잡지 않도록 한 번에 처리하는 명령 수
+    private static final int MAX_BATCH = 32;
+    // Game, Player, 생성기, 세션 객체 등 맵 배열 밖의 대략적인 크기
+    private static final long SESSION_OVERHEAD_BYTES = 2048;
+    // 세션들이 공유하는 시드별 맵 템플릿 캐시 크기
+    private static final long TEMPLATE_CACHE_BYTES = 64L << 20;
+    // 잠든 세션의 스냅샷 크기 추정치(작은 맵 기준)
+    private static final long PARKED_ESTIMATE_BYTES = 64;
+    // 닫을 때 세션 정리와 진행 중인 휴면/복원 작업을 기다리는 최대 시간
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    public final class Session {
+        private final long id;
+        private final ConcurrentLinkedQueue<Task<?>> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean open = true;
+        // 아래 세 필드는 세션 스레드(drain)에서만 바꾼다. 잠든 세션은 game이 null이고 parked에 스냅샷이 있다.
+        private Game game;
+        private byte[] parked;
+        private boolean onDisk;
+        private final long activeBytes;
+        private volatile long lastActiveMillis = System.currentTimeMillis();
+        private volatile boolean hibernated;
+
+        private Session(long id, Game game) {
+            this.id = id;
+            this.game = game;
+            this.activeBytes = SESSION_OVERHEAD_BYTES + game.getWorld().estimateBytes();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public boolean isOpen() {
+            return open;
+        }
+
+        public boolean isHibernated() {
+            return hibernated;
+        }
+
+        public CompletableFuture<String> submit(String command) {
+            return call(g -> execute(g, command));
+        }
+
+        // 세션 스레드에서 Game을 직접 다뤄야 할 때 쓴다.
+        public <T> CompletableFuture<T> call(Function<Game, T> body) {
+            Task<T> task = new Task<>(body, false);
+            if (!open) {
+                task.result.completeExceptionally(new IllegalStateException("닫힌 세션입니다: " + id));
+                return task.result;
+            }
+            enqueue(task);
+            return task.result;
+        }
+
+        // 잠재우기/정리 같은 서버 내부 작업. 활동 시각을 바꾸지 않고 잠든 세션을 깨우지도 않는다.
+        private CompletableFuture<Void> internal(Runnable body) {
+            Task<Void> task = new Task<>(g -> {
+                body.run();
+                return null;
+            }, true);
+            enqueue(task);
+            return task.result;
+        }
+
+        private void enqueue(Task<?> task) {
+            mailbox.add(task);
+            if (scheduled.compareAndSet(false, true)) schedule();
+        }
+
+        // 서버가 닫혀 작업자가 받지 않으면 남은 작업을 실패로 끝낸다.
+        private void schedule() {
+            try {
+                workers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                Task<?> task;
+                while ((task = mailbox.poll()) != null) task.fail(new IllegalStateException("이미 닫힌 서버입니다."));
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Task<?> task = mailbox.poll();
+                if (task == null) break;
+                if (task.internal) {
+                    task.run(game);
+                    continue;
+                }
+                lastActiveMillis = System.currentTimeMillis();
+                if (game == null) {
+                    try {
+                        rehydrate();
+                    } catch (RuntimeException e) {
+                        task.fail(e);
+                        continue;
+                    }
+                }
+                task.run(game);
+                latency.record(System.nanoTime() - task.enqueuedNanos);
+                commands.incrementAndGet();
+            }
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) schedule();
+        }
+
+        private void hibernate() {
+            // 그 사이 명령이 들어왔으면 재우지 않는다.
+            if (game == null || !open || mailbox.stream().anyMatch(t -> !t.internal)) return;
+            byte[] snapshot = game.snapshot();
+            if (spill != null) {
+                synchronized (spill) {
+                    spill.write(id, snapshot);
+                }
+                onDisk = true;
+            } else {
+                parked = snapshot;
+                parkedBytes.addAndGet(snapshot.length);
+            }
+            game = null;
+            hibernated = true;
+            activeSessionBytes.addAndGet(-activeBytes);
+            hibernatedCount.incrementAndGet();
+        }
+
+        private void rehydrate() {
+            long t0 = System.nanoTime();
+            byte[] snapshot;
+            if (onDisk) {
+                synchronized (spill) {
+                    snapshot = spill.read(id);
+                }
+            } else {
+                snapshot = parked;
+            }
+            if (snapshot == null) {
+                throw new IllegalStateException("닫힌 세션입니다: " + id);
+            }
+            game = Game.restore(snapshot, templates);
+            release(false);
+            activeSessionBytes.addAndGet(activeBytes);
+            hibernated = false;
+            hibernatedCount.decrementAndGet();
+            rehydrateLatency.record(System.nanoTime() - t0);
+            rehydrates.incrementAndGet();
+        }
+
+        // 잠든 상태의 저장분을 버린다. 파일 칸은 다시 잠들 때 덮어쓰도록 세션이 닫힐 때만 색인에서 뺀다.
+        private void release(boolean closing) {
+            onDisk = false;
+            if (closing && spill != null) {
+                synchronized (spill) {
+                    spill.remove(id);
+                }
+            }
+            if (parked != null) {
+                parkedBytes.addAndGet(-parked.length);
+                parked = null;
+            }
+        }
+
+        private void dispose() {
+            if (game != null) {
+                activeSessionBytes.addAndGet(-activeBytes);
+                game = null;
+            } else if (hibernated) {
+                hibernatedCount.decrementAndGet();
+                hibernated = false;
+            }
+            release(true);
+        }
+
+        private String execute(Game g, String command) {
+            String trimmed = command.trim();
+            // 서버 전용 명령: 같은 시드로 겨루기 위해 세션의 던전을 바꾼다.
+            if (trimmed.startsWith("시드 ")) {
+                try {
+                    int seed = Integer.parseInt(trimmed.substring(3).trim());
+                    g.setupGame(seed, width, height, generator);
+                    return "시드 " + seed + " 던전을 시작합니다." + System.lineSeparator() + g.getCurrentDescription();
+                } catch (NumberFormatException e) {
+                    return "시드는 정수로 입력해주세요.";
+                }
+            }
+            String reply = g.handleCommand(command);
+            if (!g.isRunning() && "종료".equals(trimmed)) open = false;
+            return reply;
+        }
+    }
+
+    private static final class Task<T> {
+        final Function<Game, T> body;
+        final boolean internal;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        Task(Function<Game, T> body, boolean internal) {
+            this.body = body;
+            this.internal = internal;
+        }
+
+        void run(Game game) {
+            try {
+                result.complete(body.apply(game));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    // 명령 지연(메일박스에 넣은 시점부터 응답까지) 분포. 10us 단위 칸, 100ms 이상은 마지막 칸.
+    public static final class LatencyHistogram {
+        private static final int BUCKETS = 10_001;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            long bucket = nanos / 10_000;
+            counts.incrementAndGet((int) Math.min(BUCKETS - 1, Math.max(0, bucket)));
+        }
+
+        public long count() {
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+            return n;
+        }
+
+        // 상위 백분위 값(마이크로초, 칸의 위쪽 경계)
+        public long percentileMicros(double p) {
+            long total = count();
+            if (total == 0) return 0;
+            long target = (long) Math.ceil(total * p / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= target) return (i + 1) * 10L;
+            }
+            return BUCKETS * 10L;
+        }
+
+        public void reset() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final MazeGenerator generator;
+    private final ExecutorService workers;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final SplittableRandom seeds;
+    private final DungeonTemplateCache templates;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong commands = new AtomicLong();
+    private volatile ServerSocket listener;
+    private volatile boolean closed;
+
+    private final AtomicLong activeSessionBytes = new AtomicLong();
+    private final AtomicLong parkedBytes = new AtomicLong();
+    private final AtomicLong hibernatedCount = new AtomicLong();
+    private final AtomicLong rehydrates = new AtomicLong();
+    private final LatencyHistogram rehydrateLatency = new LatencyHistogram();
+    private ScheduledExecutorService hibernator;
+    private RegionStore spill;
+    private long idleMillis;
+    private long memoryBudgetBytes;
+
+    public GameServer(int workerThreads, int width, int height, MazeGenerator generator, long masterSeed) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("작업자 스레드 수는 1 이상이어야 합니다: " + workerThreads);
+        }
+        this.width = width;
+        this.height = height;
+        this.generator = generator;
+        this.seeds = new SplittableRandom(masterSeed);
+        this.templates = new DungeonTemplateCache(TEMPLATE_CACHE_BYTES);
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "game-session");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private synchronized int nextSeed() {
+        return seeds.nextInt(Integer.MAX_VALUE);
+    }
+
+    // 던전 생성은 호출한 스레드에서 한다.
+    public Session open() {
+        return open(nextSeed());
+    }
+
+    public Session open(int seed) {
+        if (closed) {
+            throw new IllegalStateException("이미 닫힌 서버입니다.");
+        }
+        Game game = new Game();
+        game.setTemplateCache(templates);
+        game.setupGame(seed, width, height, generator);
+        game.setDeterministicCombat(true);
+        Session s = new Session(nextId.getAndIncrement(), game);
+        activeSessionBytes.addAndGet(s.activeBytes);
+        sessions.put(s.getId(), s);
+        return s;
+    }
+
+    public Session getSession(long id) {
+        return sessions.get(id);
+    }
+
+    public void closeSession(long id) {
+        disposeSession(id);
+    }
+
+    private CompletableFuture<Void> disposeSession(long id) {
+        Session s = sessions.remove(id);
+        if (s == null) return CompletableFuture.completedFuture(null);
+        s.open = false;
+        return s.internal(s::dispose);
+    }
+
+    // idleMillis 넘게 명령이 없던 세션은 스냅샷으로 재우고 다음 명령이 오면 깨운다.
+    // 활성 세션 추정 크기 + 메모리에 둔 스냅샷이 예산을 넘으면 오래 쉰 세션부터 더 재운다.
+    // spillFile을 주면 스냅샷을 메모리 대신 파일에 둔다.
+    public synchronized void enableHibernation(long idleMillis, long memoryBudgetBytes, Path spillFile) throws IOException {
+        if (hibernator != null) {
+            throw new IllegalStateException("이미 세션 휴면이 켜져 있습니다.");
+        }
+        if (idleMillis < 1 || memoryBudgetBytes < 1) {
+            throw new IllegalArgumentException("휴면 대기 시간과 메모리 예산은 1 이상이어야 합니다.");
+        }
+        this.idleMillis = idleMillis;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.spill = spillFile != null ? new RegionStore(spillFile) : null;
+        hibernator = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-hibernate");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(50, Math.min(1000, idleMillis / 2));
+        hibernator.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        List<Session> awake = new ArrayList<>();
+        long projected = getEstimatedBytes();
+        long saved = spill != null ? 0 : PARKED_ESTIMATE_BYTES;
+        for (Session s : sessions.values()) {
+            if (s.hibernated) continue;
+            if (now - s.lastActiveMillis > idleMillis) {
+                s.internal(s::hibernate);
+                projected -= s.activeBytes - saved;
+            } else {
+                awake.add(s);
+            }
+        }
+        if (projected <= memoryBudgetBytes) return;
+        awake.sort(java.util.Comparator.comparingLong(s -> s.lastActiveMillis));
+        for (Session s : awake) {
+            if (projected <= memoryBudgetBytes) break;
+            s.internal(s::hibernate);
+            projected -= s.activeBytes - saved;
+        }
+    }
+
+    public long getEstimatedBytes() {
+        return activeSessionBytes.get() + parkedBytes.get();
+    }
+
+    public long getHibernatedCount() {
+        return hibernatedCount.get();
+    }
+
+    public long getActiveCount() {
+        return sessions.size() - hibernatedCount.get();
+    }
+
+    public long getRehydrateCount() {
+        return rehydrates.get();
+    }
+
+    public LatencyHistogram getRehydrateLatency() {
+        return rehydrateLatency;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public DungeonTemplateCache getTemplateCache() {
+        return templates;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // 응답은 여러 줄일 수 있으므로 빈 줄로 끝을 표시한다. 응답 안의 빈 줄은 지운다.
+    static String frame(String reply) {
+        StringBuilder sb = new StringBuilder(reply.length() + 2);
+        int start = 0;
+        int n = reply.length();
+        while (start <= n) {
+            int end = reply.indexOf('\n', start);
+            if (end < 0) end = n;
+            int lineEnd = end > start && reply.charAt(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > start) sb.append(reply, start, lineEnd).append('\n');
+            start = end + 1;
+        }
+        return sb.append('\n').toString();
+    }
+
+    // 루프백 등 지정한 주소에서 줄 단위 프로토콜을 받는다. 연결마다 세션 하나, 접속 즉시 현재 방 설명을 보낸다.
+    public int listen(InetAddress address, int port) throws IOException {
+        ServerSocket ss = new ServerSocket(port, 1024, address);
+        listener = ss;
+        Thread acceptor = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Socket socket = ss.accept();
+                    Thread t = new Thread(null, () -> serve(socket), "game-conn", 256 * 1024);
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    if (!closed) System.err.println("연결 수락 실패: " + e.getMessage());
+                }
+            }
+        }, "game-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return ss.getLocalPort();
+    }
+
+    private void serve(Socket socket) {
+        Session s;
+        try {
+            s = open();
+        } catch (RuntimeException e) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+            return;
+        }
+        try (Socket sock = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(sock.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(sock.getOutputStream(), StandardCharsets.UTF_8))) {
+            sock.setTcpNoDelay(true);
+            out.write(frame(s.call(Game::getCurrentDescription).join()));
+            out.flush();
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.write(frame(s.submit(line).join()));
+                out.flush();
+                if (!s.isOpen()) break;
+            }
+        } catch (IOException | CompletionException e) {
+            // 연결이 끊기면 세션도 정리한다.
+        } finally {
+            closeSession(s.getId());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        ServerSocket ss = listener;
+        if (ss != null) {
+            try {
+                ss.close();
+            } catch (IOException ignore) {
+            }
+        }
+        synchronized (this) {
+            if (hibernator != null) {
+                hibernator.shutdownNow();
+                awaitQuietly(hibernator);
+            }
+        }
+        // 세션 정리도 메일박스로 보내서, 앞서 들어간 휴면/복원 작업이 끝난 뒤에 치우고 지표도 맞춘다.
+        List<CompletableFuture<Void>> disposed = new ArrayList<>();
+        for (Long id : new ArrayList<>(sessions.keySet())) disposed.add(disposeSession(id));
+        try {
+            CompletableFuture.allOf(disposed.toArray(new CompletableFuture<?>[0])).get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException | java.util.concurrent.TimeoutException e) {
+            System.err.println("세션 정리 실패: " + e.getMessage());
+        }
+        workers.shutdown();
+        awaitQuietly(workers);
+        if (spill != null) {
+            synchronized (spill) {
+                spill.close();
+            }
+        }
+    }
+
+    private static void awaitQuietly(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("작업자 종료 대기 시간 초과");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
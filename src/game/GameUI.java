@@ -17,19 +17,27 @@ import java.awt.Insets;
 import java.awt.event.ActionEvent;
 
 public class GameUI extends JFrame {
-    private final Game game;
+    private Game game;
     private final JTextArea outputArea;
     private boolean clearHandled = false;
     private final HighscoreRepository repo;
+    private final java.util.concurrent.CompletableFuture<Void> dbReady;
+    private final DungeonPool pool;
+    private final ScoreVerifier verifier;
+    private final MapPanel mapPanel;
+    // 종료 버튼을 눌러도 진행 중인 검증, 저장, 순위 조회가 끝날 때까지 이만큼은 기다린다.
+    private static final long QUIT_WAIT_SECONDS = 10;
+    private final java.util.Set<java.util.concurrent.CompletableFuture<String>> pendingSaves = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private volatile boolean quitting = false;
 
     public GameUI() {
         super("텍스트 어드벤처");
-        this.game = new Game();
-        int seed = (int)(System.currentTimeMillis() & 0x7fffffff);
-        this.game.setupGame(seed);
+        this.pool = new DungeonPool(3, 4, 4, MazeGenerator.BACKTRACKER, System.currentTimeMillis());
+        this.game = record(pool.take());
 
         this.repo = new HighscoreRepository();
-        this.repo.init();
+        this.dbReady = repo.initAsync();
+        this.verifier = new ScoreVerifier(2, 64, repo);
 
         outputArea = new JTextArea();
         outputArea.setEditable(false);
@@ -48,6 +56,7 @@ public class GameUI extends JFrame {
         JButton btnInv = new JButton("인벤토리");
         JButton btnTalk = new JButton("대화");
         JButton btnAttack = new JButton("공격");
+        JButton btnRestart = new JButton("새 게임");
 
         JPanel arrowPad = new JPanel(new GridBagLayout());
         GridBagConstraints c = new GridBagConstraints();
@@ -78,6 +87,8 @@ public class GameUI extends JFrame {
         uc.gridy = 2; uc.gridx = 2; uc.gridwidth = 2; uc.weightx = 1.0; utilityColumn.add(btnAttack, uc);
         uc.gridy = 2; uc.gridx = 4; uc.gridwidth = 2; uc.weightx = 1.0; utilityColumn.add(btnQuit, uc);
 
+        uc.gridy = 3; uc.gridx = 0; uc.gridwidth = 6; uc.weightx = 1.0; utilityColumn.add(btnRestart, uc);
+
         JPanel bottomPanel = new JPanel(new BorderLayout());
         bottomPanel.setBorder(BorderFactory.createEmptyBorder(4, 8, 8, 8));
         JPanel controlsRow = new JPanel(new BorderLayout());
@@ -87,7 +98,7 @@ public class GameUI extends JFrame {
 
         JPanel centerSplit = new JPanel(new GridLayout(1, 2));
         centerSplit.add(new JScrollPane(outputArea));
-        MapPanel mapPanel = new MapPanel(game);
+        mapPanel = new MapPanel(game);
         centerSplit.add(mapPanel);
 
         setLayout(new BorderLayout());
@@ -104,6 +115,14 @@ public class GameUI extends JFrame {
         appendLine("이번 맵 시드: " + game.getSeedId());
         appendLine(game.getCurrentDescription());
 
+        btnRestart.addActionListener(e -> onRestart());
+        dbReady.whenComplete((v, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                SwingUtilities.invokeLater(() -> appendLine("하이스코어 DB에 연결하지 못했습니다: " + cause.getMessage()));
+            }
+        });
+
         btnLook.addActionListener(this::onLook);
         btnNorth.addActionListener(e -> { onMove("북쪽"); mapPanel.refresh(); });
         btnSouth.addActionListener(e -> { onMove("남쪽"); mapPanel.refresh(); });
@@ -118,6 +137,22 @@ public class GameUI extends JFrame {
         btnAttack.addActionListener(e -> { appendLine(sendCommand("공격")); mapPanel.refresh(); });
     }
 
+    private static Game record(Game game) {
+        game.setDeterministicCombat(true);
+        game.startRecording();
+        return game;
+    }
+
+    private void onRestart() {
+        game = record(pool.take());
+        clearHandled = false;
+        outputArea.setText("");
+        appendLine("새 게임 시작!");
+        appendLine("이번 맵 시드: " + game.getSeedId());
+        appendLine(game.getCurrentDescription());
+        mapPanel.setGame(game);
+    }
+
     private void onLook(ActionEvent e) {
         appendLine(game.getCurrentDescription());
     }
@@ -199,16 +234,41 @@ public class GameUI extends JFrame {
         return result;
     }
 
+    // 남은 기록 작업을 기다린 뒤(시간이 넘으면 취소하고 알린 뒤) 닫는다. 저장소는 다른 것들이 다 닫힌 뒤 마지막에 닫는다.
     private void onQuit() {
-        appendLine("게임을 종료합니다.");
-        dispose();
+        if (quitting) return;
+        quitting = true;
+        this.setEnabled(false);
+        appendLine(pendingSaves.isEmpty() ? "게임을 종료합니다." : "기록 저장이 끝나면 게임을 종료합니다...");
+        Thread closer = new Thread(() -> {
+            java.util.List<java.util.concurrent.CompletableFuture<String>> pending = new java.util.ArrayList<>(pendingSaves);
+            try {
+                java.util.concurrent.CompletableFuture.allOf(pending.toArray(new java.util.concurrent.CompletableFuture<?>[0]))
+                        .get(QUIT_WAIT_SECONDS, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (java.util.concurrent.ExecutionException ignore) {
+                // 실패한 작업은 이미 끝난 것이다.
+            } catch (java.util.concurrent.TimeoutException e) {
+                int cancelled = 0;
+                for (java.util.concurrent.CompletableFuture<String> f : pending) {
+                    if (f.cancel(true)) cancelled++;
+                }
+                System.err.println("종료 대기 시간 초과로 기록 작업 " + cancelled + "건을 취소했습니다.");
+            }
+            pool.close();
+            verifier.close();
+            repo.close();
+            SwingUtilities.invokeLater(this::dispose);
+        }, "game-ui-quit");
+        closer.start();
     }
 
     private void onGameCleared() {
+        if (!this.isEnabled()) return;
+        String nickname;
+        this.setEnabled(false);
         try {
-            if (!this.isEnabled()) return;
-            this.setEnabled(false);
-            String nickname;
             while (true) {
                 nickname = javax.swing.JOptionPane.showInputDialog(this, "축하합니다! 닉네임을 입력해 주세요 :", "클리어 기록", javax.swing.JOptionPane.PLAIN_MESSAGE);
                 if (nickname == null) {
@@ -218,28 +278,53 @@ public class GameUI extends JFrame {
                 if (nickname.matches("[A-Za-z]{3}")) break;
                 javax.swing.JOptionPane.showMessageDialog(this, "영문 3글자만 입력해주세요.");
             }
-            long elapsed = game.getElapsedMillis();
-            java.time.LocalDateTime clearedAt = java.time.LocalDateTime.now();
-            if (nickname != null) {
-                String nick = nickname.toUpperCase();
-                repo.insertRecord(nick, elapsed, clearedAt, game.getSeedId());
-                java.util.List<String> top = repo.listTop(5);
-                int myRank = repo.computeRank(elapsed);
-                StringBuilder sb = new StringBuilder();
-                sb.append("Ranking :\n");
-                for (String line : top) sb.append(line).append('\n');
-                sb.append('\n');
-                String myMedal = HighscoreRepository.medalForRank(myRank);
-                sb.append("내 순위 : ")
-                  .append(String.format("%s%d) %s  %s", myMedal, myRank, nick, HighscoreRepository.formatElapsed(elapsed)))
-                  .append('\n');
-                javax.swing.JOptionPane.showMessageDialog(this, sb.toString(), "하이스코어", javax.swing.JOptionPane.INFORMATION_MESSAGE);
-            }
-        } catch (Exception ex) {
-            javax.swing.JOptionPane.showMessageDialog(this, "기록 저장 중 오류: " + ex.getMessage());
         } finally {
             this.setEnabled(true);
         }
+        if (nickname == null) return;
+
+        // 검증, 저장, 순위 조회는 모두 백그라운드에서 돌리고 결과가 오면 EDT에서 창을 띄운다.
+        String nick = nickname.toUpperCase();
+        byte[] log = game.getActionLog().toByteArray();
+        appendLine("기록을 확인하는 중입니다...");
+        java.util.concurrent.CompletableFuture<String> save = dbReady.thenCompose(v -> verifier.submit(Submission.fromActionLog(nick, log)))
+                .thenCompose(verdict -> {
+                    if (!verdict.isAccepted()) {
+                        return java.util.concurrent.CompletableFuture.completedFuture("기록 검증 실패: " + verdict.getReason());
+                    }
+                    long elapsed = verdict.getElapsedMillis();
+                    int seedId = verdict.getSubmission().getSeedId();
+                    java.util.concurrent.CompletableFuture<String> global = repo.listTopAsync(5).thenCombine(repo.computeRankAsync(elapsed), (top, myRank) ->
+                            formatRanking("Ranking :", top, myRank, nick, elapsed));
+                    java.util.concurrent.CompletableFuture<String> perSeed = repo.listTopForSeedAsync(seedId, 5).thenCombine(repo.computeRankForSeedAsync(seedId, elapsed), (top, myRank) ->
+                            formatRanking("시드 #" + seedId + " Ranking :", top, myRank, nick, elapsed));
+                    return global.thenCombine(perSeed, (a, b) -> a + '\n' + b);
+                });
+        pendingSaves.add(save);
+        save.whenComplete((text, ex) -> {
+            pendingSaves.remove(save);
+            if (quitting) return;
+            SwingUtilities.invokeLater(() -> {
+                if (ex != null) {
+                    Throwable cause = ex instanceof java.util.concurrent.CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    javax.swing.JOptionPane.showMessageDialog(this, "기록 저장 중 오류: " + cause.getMessage());
+                } else {
+                    javax.swing.JOptionPane.showMessageDialog(this, text, "하이스코어", javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                }
+            });
+        });
+    }
+
+    private static String formatRanking(String title, java.util.List<String> top, int myRank, String nick, long elapsed) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(title).append('\n');
+        for (String line : top) sb.append(line).append('\n');
+        sb.append('\n');
+        String myMedal = HighscoreRepository.medalForRank(myRank);
+        sb.append("내 순위 : ")
+          .append(String.format("%s%d) %s  %s", myMedal, myRank, nick, HighscoreRepository.formatElapsed(elapsed)))
+          .append('\n');
+        return sb.toString();
     }
 
     private void appendLine(String text) {
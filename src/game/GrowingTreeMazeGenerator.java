@@ -0,0 +1,52 @@
+package game;
+
+public class GrowingTreeMazeGenerator implements MazeGenerator {
+    private final double newestBias;
+
+    public GrowingTreeMazeGenerator(double newestBias) {
+        if (newestBias < 0.0 || newestBias > 1.0) {
+            throw new IllegalArgumentException("newestBias는 0~1 사이여야 합니다: " + newestBias);
+        }
+        this.newestBias = newestBias;
+    }
+
+    @Override
+    public String getName() {
+        return "growing-tree";
+    }
+
+    @Override
+    public void generate(World world, java.util.Random rng) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        int start = world.cellOf(0, 0);
+        int[] active = new int[world.size()];
+        int n = 0;
+        active[n++] = start;
+
+        while (n > 0) {
+            int i = rng.nextDouble() < newestBias ? n - 1 : rng.nextInt(n);
+            int c = active[i];
+            int cx = c % width;
+            int cy = c / width;
+            byte[] perm = MazeCarver.nextPermutation(rng);
+
+            boolean grown = false;
+            for (int k = 0; k < 4; k++) {
+                Direction d = MazeCarver.CARVE_ORDER[perm[k]];
+                int nx = cx + d.getDx();
+                int ny = cy + d.getDy();
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int next = ny * width + nx;
+                if (next == start || world.exitMask(next) != 0) continue;
+                world.link(c, next, d);
+                active[n++] = next;
+                grown = true;
+                break;
+            }
+            if (!grown) {
+                active[i] = active[--n];
+            }
+        }
+    }
+}
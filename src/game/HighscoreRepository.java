@@ -1,8 +1,6 @@
 package game;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,13 +11,30 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-public class HighscoreRepository {
+public class HighscoreRepository implements HighscoreSink, AutoCloseable {
     private final String dbUrl;
     private final String dbUser;
     private final String dbPassword;
+    private final String table;
+    private final ConnectionPool pool;
+    private final ExecutorService io;
+    private final Leaderboard board = new Leaderboard();
+    private final Map<Integer, Leaderboard> hotSeeds;
+    // 아직 캐시하지 않은 시드의 조회 수. hotAfter번 조회되면 그때 순위표를 만든다.
+    private final Map<Integer, Integer> seedLookups;
+    private final int hotAfter;
+    private final long resyncSeconds;
+    private ScheduledExecutorService resync;
     private static final DateTimeFormatter DATE_MIN_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     private static final Properties DOTENV = new Properties();
@@ -52,45 +67,348 @@ public class HighscoreRepository {
     }
 
     public HighscoreRepository() {
+        this("highscores");
+    }
+
+    // 성능 측정처럼 실제 순위표를 건드리면 안 될 때 다른 테이블을 쓴다.
+    HighscoreRepository(String table) {
+        if (!table.matches("[A-Za-z_][A-Za-z0-9_]{0,63}")) {
+            throw new IllegalArgumentException("잘못된 테이블 이름: " + table);
+        }
+        this.table = table;
         String host = envOrDefault("MYSQL_HOST", "127.0.0.1");
         String port = envOrDefault("MYSQL_PORT", "3306");
         String database = envOrDefault("MYSQL_DB", "game");
         this.dbUser = envOrDefault("MYSQL_USER", "root");
         this.dbPassword = envOrDefault("MYSQL_PASSWORD", "");
         this.dbUrl = "jdbc:mysql://" + host + ":" + port + "/" + database +
-                     "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=utf8";
+                     "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=utf8&rewriteBatchedStatements=true";
+        int poolSize = Integer.parseInt(envOrDefault("DB_POOL_SIZE", "4"));
+        this.pool = new ConnectionPool(dbUrl, dbUser, dbPassword, poolSize, 5 * 60_000L, 5_000L);
+        this.io = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "highscore-io");
+            t.setDaemon(true);
+            return t;
+        });
+        this.resyncSeconds = Long.parseLong(envOrDefault("LEADERBOARD_RESYNC_SEC", "60"));
+        int hotSeedCount = Integer.parseInt(envOrDefault("LEADERBOARD_HOT_SEEDS", "64"));
+        this.hotSeeds = new LinkedHashMap<Integer, Leaderboard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Leaderboard> eldest) {
+                return size() > hotSeedCount;
+            }
+        };
+        this.hotAfter = Integer.parseInt(envOrDefault("LEADERBOARD_HOT_AFTER", "8"));
+        int trackedSeeds = Math.max(16, hotSeedCount * 4);
+        this.seedLookups = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > trackedSeeds;
+            }
+        };
+    }
+
+    // 측정용 임시 테이블을 지운다.
+    void dropTable() {
+        ensureDriverLoaded();
+        try {
+            pool.withLease(lease -> {
+                try (Statement st = lease.getConnection().createStatement()) {
+                    st.executeUpdate("DROP TABLE IF EXISTS " + table);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("테이블 삭제 실패: " + e.getMessage(), e);
+        }
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return board;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (resync != null) resync.shutdownNow();
+        io.shutdown();
+        pool.close();
+    }
+
+    // 아래 *Async 메서드는 DB 전용 스레드에서 동기 메서드를 돌린다. UI 스레드는 결과를 기다리지 않는다.
+    public CompletableFuture<Void> initAsync() {
+        return CompletableFuture.runAsync(this::init, io);
+    }
+
+    public CompletableFuture<Void> insertRecordAsync(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId) {
+        return CompletableFuture.runAsync(() -> insertRecord(nickname, elapsedMillis, clearedAt, seedId), io);
+    }
+
+    public CompletableFuture<List<String>> listTopAsync(int limit) {
+        return CompletableFuture.supplyAsync(() -> listTop(limit), io);
+    }
+
+    public CompletableFuture<Integer> computeRankAsync(long elapsedMillis) {
+        return CompletableFuture.supplyAsync(() -> computeRank(elapsedMillis), io);
+    }
+
+    public CompletableFuture<List<String>> listTopForSeedAsync(int seedId, int limit) {
+        return CompletableFuture.supplyAsync(() -> listTopForSeed(seedId, limit), io);
+    }
+
+    public CompletableFuture<Integer> computeRankForSeedAsync(int seedId, long elapsedMillis) {
+        return CompletableFuture.supplyAsync(() -> computeRankForSeed(seedId, elapsedMillis), io);
     }
 
     public void init() {
         ensureDriverLoaded();
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             Statement st = conn.createStatement()) {
-            st.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS highscores (" +
-                "id INT NOT NULL AUTO_INCREMENT, " +
-                "nickname VARCHAR(32) NOT NULL, " +
-                "elapsed_ms BIGINT NOT NULL, " +
-                "cleared_at DATETIME NOT NULL, " +
-                "seed_id INT NOT NULL, " +
-                "PRIMARY KEY (id))"
-            );
+        try {
+            pool.withLease(lease -> {
+                try (Statement st = lease.getConnection().createStatement()) {
+                    st.executeUpdate(
+                        "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                        "id INT NOT NULL AUTO_INCREMENT, " +
+                        "nickname VARCHAR(32) NOT NULL, " +
+                        "elapsed_ms BIGINT NOT NULL, " +
+                        "cleared_at DATETIME NOT NULL, " +
+                        "seed_id INT NOT NULL, " +
+                        "PRIMARY KEY (id))"
+                    );
+                    createIndexIfMissing(st, "CREATE INDEX idx_highscores_elapsed ON " + table + "(elapsed_ms)");
+                    // 시드별 순위용. 예전 테이블에도 여기서 추가된다.
+                    createIndexIfMissing(st, "CREATE INDEX idx_highscores_seed_elapsed ON " + table + "(seed_id, elapsed_ms)");
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("DB 초기화 실패: " + e.getMessage(), e);
+        }
+        resyncLeaderboard();
+        scheduleResync();
+    }
+
+    private static void createIndexIfMissing(Statement st, String sql) throws SQLException {
+        try {
+            st.executeUpdate(sql);
+        } catch (SQLException e) {
+            String msg = e.getMessage();
+            if (msg == null || !(msg.toLowerCase().contains("duplicate") || msg.toLowerCase().contains("exists"))) {
+                throw e;
+            }
+        }
+    }
+
+    // 메모리 순위표를 DB 전체 기록으로 다시 만든다. 다른 프로세스가 넣은 기록도 여기서 반영된다.
+    public void resyncLeaderboard() {
+        board.beginResync();
+        try {
+            board.replace(loadAll());
+        } catch (RuntimeException e) {
+            board.abortResync();
+            throw e;
+        }
+    }
+
+    private synchronized void scheduleResync() {
+        if (resync != null || resyncSeconds <= 0) return;
+        resync = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-resync");
+            t.setDaemon(true);
+            return t;
+        });
+        resync.scheduleWithFixedDelay(() -> {
             try {
-                st.executeUpdate("CREATE INDEX idx_highscores_elapsed ON highscores(elapsed_ms)");
-            } catch (SQLException e) {
-                String msg = e.getMessage();
-                if (msg == null || !(msg.toLowerCase().contains("duplicate") || msg.toLowerCase().contains("exists"))) {
+                resyncLeaderboard();
+                List<Map.Entry<Integer, Leaderboard>> hot;
+                synchronized (hotSeeds) {
+                    hot = new ArrayList<>(hotSeeds.entrySet());
+                }
+                for (Map.Entry<Integer, Leaderboard> e : hot) {
+                    synchronized (e.getValue()) {
+                        resyncSeed(e.getKey(), e.getValue());
+                    }
+                }
+            } catch (RuntimeException e) {
+                System.err.println("순위표 재동기화 실패: " + e.getMessage());
+            }
+        }, resyncSeconds, resyncSeconds, TimeUnit.SECONDS);
+    }
+
+    // 자주 조회되는 시드만 순위표를 따로 메모리에 둔다(LRU, 기본 64개 시드). 아직 뜨겁지 않으면 null.
+    private Leaderboard hotSeedBoard(int seedId) {
+        Leaderboard sb;
+        synchronized (hotSeeds) {
+            sb = hotSeeds.get(seedId);
+            if (sb == null) {
+                int n = seedLookups.merge(seedId, 1, Integer::sum);
+                if (n < hotAfter) return null;
+                seedLookups.remove(seedId);
+                sb = new Leaderboard();
+                hotSeeds.put(seedId, sb);
+            }
+        }
+        synchronized (sb) {
+            if (!sb.isLoaded()) resyncSeed(seedId, sb);
+        }
+        return sb;
+    }
+
+    private Leaderboard cachedSeedBoard(int seedId) {
+        synchronized (hotSeeds) {
+            return hotSeeds.get(seedId);
+        }
+    }
+
+    private void resyncSeed(int seedId, Leaderboard sb) {
+        sb.beginResync();
+        try {
+            sb.replace(loadSeed(seedId));
+        } catch (RuntimeException e) {
+            sb.abortResync();
+            throw e;
+        }
+    }
+
+    List<Record> loadSeed(int seedId) {
+        ensureDriverLoaded();
+        String sql = "SELECT nickname, elapsed_ms, cleared_at, seed_id FROM " + table + " WHERE seed_id = ? ORDER BY elapsed_ms ASC, id ASC";
+        try {
+            return pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setInt(1, seedId);
+                return readRecords(ps);
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("시드 순위표 적재 실패: " + e.getMessage(), e);
+        }
+    }
+
+    List<Record> loadAll() {
+        ensureDriverLoaded();
+        String sql = "SELECT nickname, elapsed_ms, cleared_at, seed_id FROM " + table + " ORDER BY elapsed_ms ASC, id ASC";
+        try {
+            return pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return readRecords(ps);
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("순위표 적재 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Record> readRecords(PreparedStatement ps) throws SQLException {
+        List<Record> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                java.sql.Timestamp ts = rs.getTimestamp(3);
+                rows.add(new Record(rs.getString(1), rs.getLong(2), ts != null ? ts.toLocalDateTime() : null, rs.getInt(4)));
+            }
+        }
+        return rows;
+    }
+
+    public static final class Record {
+        private final String nickname;
+        private final long elapsedMillis;
+        private final LocalDateTime clearedAt;
+        private final int seedId;
+
+        public Record(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId) {
+            this.nickname = nickname;
+            this.elapsedMillis = elapsedMillis;
+            this.clearedAt = clearedAt;
+            this.seedId = seedId;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public LocalDateTime getClearedAt() {
+            return clearedAt;
+        }
+
+        public int getSeedId() {
+            return seedId;
+        }
+    }
+
+    // 한 트랜잭션의 JDBC 배치로 넣는다. URL의 rewriteBatchedStatements로 드라이버가 다중 VALUES 한 문장으로 바꾼다.
+    public void insertBatch(List<Record> records) {
+        if (records.isEmpty()) return;
+        ensureDriverLoaded();
+        String sql = "INSERT INTO " + table + "(nickname, elapsed_ms, cleared_at, seed_id) VALUES(?,?,?,?)";
+        try {
+            pool.withLease(lease -> {
+                java.sql.Connection conn = lease.getConnection();
+                PreparedStatement ps = lease.prepare(sql);
+                conn.setAutoCommit(false);
+                try {
+                    for (Record r : records) {
+                        ps.setString(1, r.getNickname());
+                        ps.setLong(2, r.getElapsedMillis());
+                        ps.setTimestamp(3, java.sql.Timestamp.valueOf(r.getClearedAt()));
+                        ps.setInt(4, r.getSeedId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignore) {
+                    }
                     throw e;
+                } finally {
+                    if (!conn.isClosed()) conn.setAutoCommit(true);
                 }
+                return null;
+            });
+            board.addAll(records);
+            for (Record r : records) {
+                Leaderboard sb = cachedSeedBoard(r.getSeedId());
+                if (sb != null) sb.add(r);
             }
         } catch (SQLException e) {
-            throw new RuntimeException("DB 초기화 실패: " + e.getMessage(), e);
+            throw new RuntimeException("기록 일괄 저장 실패: " + e.getMessage(), e);
         }
     }
 
+    @Override
     public void insertRecord(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId) {
         ensureDriverLoaded();
-        String sql = "INSERT INTO highscores(nickname, elapsed_ms, cleared_at, seed_id) VALUES(?,?,?,?)";
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+        String sql = "INSERT INTO " + table + "(nickname, elapsed_ms, cleared_at, seed_id) VALUES(?,?,?,?)";
+        try {
+            pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setString(1, nickname);
+                ps.setLong(2, elapsedMillis);
+                ps.setTimestamp(3, java.sql.Timestamp.valueOf(clearedAt));
+                ps.setInt(4, seedId);
+                return ps.executeUpdate();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("기록 저장 실패: " + e.getMessage(), e);
+        }
+        Record r = new Record(nickname, elapsedMillis, clearedAt, seedId);
+        board.add(r);
+        Leaderboard sb = cachedSeedBoard(seedId);
+        if (sb != null) sb.add(r);
+    }
+
+    // 풀 도입 전 방식 그대로(호출마다 새 커넥션). HighscoreWriter.main의 처리량 비교용.
+    void insertRecordDirect(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId) {
+        ensureDriverLoaded();
+        String sql = "INSERT INTO " + table + "(nickname, elapsed_ms, cleared_at, seed_id) VALUES(?,?,?,?)";
+        try (java.sql.Connection conn = java.sql.DriverManager.getConnection(dbUrl, dbUser, dbPassword);
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, nickname);
             ps.setLong(2, elapsedMillis);
@@ -102,32 +420,80 @@ public class HighscoreRepository {
         }
     }
 
+    // 순위표가 적재돼 있으면 DB에 가지 않는다.
     public List<String> listTop(int limit) {
+        if (board.isLoaded()) return formatTop(board.top(Math.max(1, limit)));
         ensureDriverLoaded();
-        String sql = "SELECT nickname, elapsed_ms, cleared_at FROM highscores ORDER BY elapsed_ms ASC LIMIT ?";
-        List<String> rows = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, Math.max(1, limit));
-            try (ResultSet rs = ps.executeQuery()) {
-                int rank = 0;
-                int shown = 0;
-                long prevMs = -1;
-                while (rs.next()) {
-                    String nick = rs.getString(1);
-                    long ms = rs.getLong(2);
-                    java.sql.Timestamp ts = rs.getTimestamp(3);
-                    String when = ts != null ? DATE_MIN_FMT.format(ts.toLocalDateTime()) : "";
-                    if (ms != prevMs) {
-                        rank = shown + 1;
-                        prevMs = ms;
-                    }
-                    shown++;
-                    rows.add(String.format("%s%2d) %s  %s  %s", medalForRank(rank), rank, nick, formatElapsed(ms), when));
-                }
-            }
+        String sql = "SELECT nickname, elapsed_ms, cleared_at, seed_id FROM " + table + " ORDER BY elapsed_ms ASC LIMIT ?";
+        List<Record> top;
+        try {
+            top = pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setInt(1, Math.max(1, limit));
+                return readRecords(ps);
+            });
         } catch (SQLException e) {
+            List<String> rows = new ArrayList<>();
+            rows.add("하이스코어 조회 실패: " + e.getMessage());
+            return rows;
+        }
+        return formatTop(top);
+    }
+
+    // 캐시하지 않은 시드는 (seed_id, elapsed_ms) 인덱스로 상위 N개만 읽는다.
+    public List<String> listTopForSeed(int seedId, int limit) {
+        try {
+            Leaderboard sb = hotSeedBoard(seedId);
+            if (sb != null) return formatTop(sb.top(Math.max(1, limit)));
+            ensureDriverLoaded();
+            String sql = "SELECT nickname, elapsed_ms, cleared_at, seed_id FROM " + table + " WHERE seed_id = ? ORDER BY elapsed_ms ASC, id ASC LIMIT ?";
+            return formatTop(pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setInt(1, seedId);
+                ps.setInt(2, Math.max(1, limit));
+                return readRecords(ps);
+            }));
+        } catch (SQLException | RuntimeException e) {
+            List<String> rows = new ArrayList<>();
             rows.add("하이스코어 조회 실패: " + e.getMessage());
+            return rows;
+        }
+    }
+
+    public int computeRankForSeed(int seedId, long elapsedMillis) {
+        Leaderboard sb = hotSeedBoard(seedId);
+        if (sb != null) return sb.rankOf(elapsedMillis);
+        ensureDriverLoaded();
+        String sql = "SELECT COUNT(*) FROM " + table + " WHERE seed_id = ? AND elapsed_ms < ?";
+        try {
+            return pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setInt(1, seedId);
+                ps.setLong(2, elapsedMillis);
+                try (ResultSet rs = ps.executeQuery()) {
+                    long rank = rs.next() ? rs.getLong(1) + 1 : 1;
+                    return rank > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) rank;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("시드 랭킹 계산 실패: " + e.getMessage(), e);
+        }
+    }
+
+    static List<String> formatTop(List<Record> top) {
+        List<String> rows = new ArrayList<>(top.size());
+        int rank = 0;
+        int shown = 0;
+        long prevMs = -1;
+        for (Record r : top) {
+            long ms = r.getElapsedMillis();
+            String when = r.getClearedAt() != null ? DATE_MIN_FMT.format(r.getClearedAt()) : "";
+            if (ms != prevMs) {
+                rank = shown + 1;
+                prevMs = ms;
+            }
+            shown++;
+            rows.add(String.format("%s%2d) %s  %s  %s", medalForRank(rank), rank, r.getNickname(), formatElapsed(ms), when));
         }
         return rows;
     }
@@ -150,22 +516,25 @@ public class HighscoreRepository {
     }
 
     public int computeRank(long elapsedMillis) {
+        if (board.isLoaded()) return board.rankOf(elapsedMillis);
         ensureDriverLoaded();
-        String sql = "SELECT COUNT(*) FROM highscores WHERE elapsed_ms < ?";
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, elapsedMillis);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    long numBetter = rs.getLong(1);
-                    long rank = numBetter + 1;
-                    return (rank > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) rank;
+        String sql = "SELECT COUNT(*) FROM " + table + " WHERE elapsed_ms < ?";
+        try {
+            return pool.withLease(lease -> {
+                PreparedStatement ps = lease.prepare(sql);
+                ps.setLong(1, elapsedMillis);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        long numBetter = rs.getLong(1);
+                        long rank = numBetter + 1;
+                        return (rank > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) rank;
+                    }
                 }
-            }
+                return 1;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("랭킹 계산 실패: " + e.getMessage(), e);
         }
-        return 1;
     }
 
     private static volatile boolean driverLoaded = false;
@@ -0,0 +1,7 @@
+package game;
+
+import java.time.LocalDateTime;
+
+public interface HighscoreSink {
+    void insertRecord(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId);
+}
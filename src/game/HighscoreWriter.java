@@ -0,0 +1,291 @@
+package game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HighscoreWriter implements HighscoreSink, AutoCloseable {
+    private final HighscoreRepository repo;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path spillFile;
+    private final BlockingQueue<HighscoreRepository.Record> pending;
+    private final Object spillLock = new Object();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicLong quarantined = new AtomicLong();
+
+    public HighscoreWriter(HighscoreRepository repo, int batchSize, long flushIntervalMillis, int capacity, Path spillFile) {
+        if (batchSize < 1 || capacity < batchSize) {
+            throw new IllegalArgumentException("배치 크기는 1 이상, 버퍼 크기는 배치 크기 이상이어야 합니다.");
+        }
+        this.repo = repo;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.spillFile = spillFile;
+        this.pending = new LinkedBlockingQueue<>(capacity);
+        this.worker = new Thread(this::run, "highscore-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // 버퍼가 가득 차면 호출한 스레드에서 바로 임시 파일로 흘려 보낸다. 기록은 버리지 않는다.
+    @Override
+    public void insertRecord(String nickname, long elapsedMillis, LocalDateTime clearedAt, int seedId) {
+        if (closed) {
+            throw new IllegalStateException("이미 닫힌 기록 버퍼입니다.");
+        }
+        HighscoreRepository.Record r = new HighscoreRepository.Record(nickname, elapsedMillis, clearedAt, seedId);
+        if (!pending.offer(r)) {
+            spill(List.of(r));
+        }
+    }
+
+    private void run() {
+        List<HighscoreRepository.Record> batch = new ArrayList<>(batchSize);
+        while (!closed || !pending.isEmpty()) {
+            try {
+                HighscoreRepository.Record first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                    while (batch.size() < batchSize) {
+                        pending.drainTo(batch, batchSize - batch.size());
+                        if (batch.size() >= batchSize) break;
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0 || closed) break;
+                        HighscoreRepository.Record next = pending.poll(left, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (!closed) Thread.currentThread().interrupt();
+            }
+            try {
+                flush(batch);
+                drainSpill();
+            } catch (RuntimeException ignore) {
+                // 임시 파일까지 못 쓰는 경우. 작업 스레드는 계속 돈다.
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<HighscoreRepository.Record> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            repo.insertBatch(batch);
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            spill(batch);
+        }
+    }
+
+    private void spill(List<HighscoreRepository.Record> records) {
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC)) {
+                for (HighscoreRepository.Record r : records) {
+                    out.write(escape(r.getNickname()) + "\t" + r.getElapsedMillis() + "\t" + r.getClearedAt() + "\t" + r.getSeedId());
+                    out.newLine();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("기록 임시 파일 저장 실패: " + e.getMessage(), e);
+            }
+            spilled.addAndGet(records.size());
+        }
+    }
+
+    // DB가 다시 받아 주면 임시 파일의 기록을 배치로 넣는다. 잠금은 파일을 읽고 비우는 동안만 잡고,
+    // DB에 넣는 동안은 풀어서 버퍼가 찬 insertRecord가 느린 DB를 기다리지 않게 한다. 못 넣은 기록은 파일 뒤에 다시 붙인다.
+    // 읽을 수 없는 줄은 격리 파일(.bad)로 옮겨서 뒤의 기록을 막지 않게 한다.
+    private void drainSpill() {
+        List<String> lines;
+        synchronized (spillLock) {
+            try {
+                if (!Files.exists(spillFile) || Files.size(spillFile) == 0) return;
+                lines = Files.readAllLines(spillFile, StandardCharsets.UTF_8);
+                Files.write(spillFile, new byte[0], StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                return;
+            }
+        }
+        List<String> good = new ArrayList<>(lines.size());
+        List<HighscoreRepository.Record> records = new ArrayList<>(lines.size());
+        List<String> bad = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                records.add(parse(line));
+                good.add(line);
+            } catch (RuntimeException e) {
+                bad.add(line);
+            }
+        }
+        List<String> retry = new ArrayList<>();
+        if (!bad.isEmpty()) {
+            try {
+                Files.write(quarantineFile(), bad, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+                quarantined.addAndGet(bad.size());
+            } catch (IOException e) {
+                retry.addAll(bad);
+            }
+        }
+        int done = 0;
+        try {
+            while (done < records.size()) {
+                int to = Math.min(records.size(), done + batchSize);
+                List<HighscoreRepository.Record> chunk = records.subList(done, to);
+                repo.insertBatch(chunk);
+                drained.addAndGet(chunk.size());
+                written.addAndGet(chunk.size());
+                done = to;
+            }
+        } catch (RuntimeException ignore) {
+        }
+        retry.addAll(good.subList(done, good.size()));
+        if (retry.isEmpty()) return;
+        synchronized (spillLock) {
+            try {
+                Files.write(spillFile, retry, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                throw new UncheckedIOException("기록 임시 파일 저장 실패: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private Path quarantineFile() {
+        return spillFile.resolveSibling(spillFile.getFileName() + ".bad");
+    }
+
+    // 닉네임의 탭, 줄바꿈, 역슬래시는 이스케이프해서 한 기록이 항상 한 줄, 네 칸이 되게 한다.
+    static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String unescape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (++i == s.length()) throw new IllegalArgumentException("잘린 이스케이프: " + s);
+            switch (s.charAt(i)) {
+                case '\\': sb.append('\\'); break;
+                case 't': sb.append('\t'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                default: throw new IllegalArgumentException("알 수 없는 이스케이프: " + s);
+            }
+        }
+        return sb.toString();
+    }
+
+    static HighscoreRepository.Record parse(String line) {
+        String[] f = line.split("\t", -1);
+        if (f.length != 4) {
+            throw new IllegalArgumentException("칸 수가 맞지 않는 기록 줄: " + line);
+        }
+        return new HighscoreRepository.Record(unescape(f[0]), Long.parseLong(f[1]), LocalDateTime.parse(f[2]), Integer.parseInt(f[3]));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getDrainedCount() {
+        return drained.get();
+    }
+
+    public long getQuarantinedCount() {
+        return quarantined.get();
+    }
+
+    // 사용법: HighscoreWriter [기록 수] [배치 크기]
+    // 기존 방식(매번 새 커넥션), 풀 커넥션 단건 INSERT, 배치 쓰기의 초당 기록 수를 비교한다.
+    // 실제 순위표에 가짜 기록이 남지 않도록 임시 테이블에 쓰고 끝나면 지운다.
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        String table = "highscores_bench_" + ProcessHandle.current().pid();
+        try (HighscoreRepository repo = new HighscoreRepository(table)) {
+            try {
+                repo.init();
+                LocalDateTime now = LocalDateTime.now();
+                long t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) repo.insertRecordDirect("BEN", 600_000 + i, now, i);
+                long direct = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) repo.insertRecord("BEN", 600_000 + i, now, i);
+                long pooled = System.nanoTime() - t0;
+                Path spill = Files.createTempFile("highscore-spill", ".tsv");
+                t0 = System.nanoTime();
+                try (HighscoreWriter writer = new HighscoreWriter(repo, batchSize, 50, n + batchSize, spill)) {
+                    for (int i = 0; i < n; i++) writer.insertRecord("BEN", 600_000 + i, now, i);
+                }
+                long batched = System.nanoTime() - t0;
+                Files.deleteIfExists(spill);
+                System.out.println(String.format("매번 새 커넥션: %,d건/초", n * 1_000_000_000L / direct));
+                System.out.println(String.format("풀 + 단건 INSERT: %,d건/초", n * 1_000_000_000L / pooled));
+                System.out.println(String.format("배치(%d건): %,d건/초", batchSize, n * 1_000_000_000L / batched));
+            } finally {
+                repo.dropTable();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package game;
+
+// java.util.Random과 같은 선형 합동 수열을 내지만 AtomicLong CAS 없이 필드 하나로 돈다.
+// 한 스레드 안에서만 쓰는 생성용 난수에 쓴다. 같은 시드면 java.util.Random과 값이 완전히 같다.
+public class LcgRandom extends java.util.Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public LcgRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    // 스냅샷에서 난수 위치를 그대로 되살리기 위해 쓴다.
+    long getState() {
+        return state;
+    }
+
+    static LcgRandom ofState(long state) {
+        LcgRandom r = new LcgRandom(0L);
+        r.state = state & MASK;
+        return r;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+}
@@ -0,0 +1,230 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 하이스코어 전체를 메모리에 두는 순서 통계 트리(트립). 서브트리 크기로 순위/상위 N을 O(log n)에 답한다.
+public class Leaderboard {
+    private static final class Node {
+        final long ms;
+        final long seq;
+        final long priority;
+        final HighscoreRepository.Record record;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(HighscoreRepository.Record record, long seq) {
+            this.ms = record.getElapsedMillis();
+            this.seq = seq;
+            this.priority = ChunkedWorld.mix(seq);
+            this.record = record;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private long nextSeq;
+    private boolean loaded;
+    // 재동기화 조회가 도는 동안 들어온 기록. 새 스냅샷에 없으면 다시 넣는다.
+    private List<HighscoreRepository.Record> pending;
+    private long resyncCount;
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getResyncCount() {
+        lock.readLock().lock();
+        try {
+            return resyncCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(HighscoreRepository.Record record) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.add(record);
+            if (loaded) root = insert(root, new Node(record, nextSeq++));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<HighscoreRepository.Record> records) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.addAll(records);
+            if (!loaded) return;
+            for (HighscoreRepository.Record r : records) {
+                root = insert(root, new Node(r, nextSeq++));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // elapsed보다 빠른 기록 수 + 1 (같은 기록은 같은 순위)
+    public int rankOf(long elapsedMillis) {
+        lock.readLock().lock();
+        try {
+            long better = 0;
+            Node n = root;
+            while (n != null) {
+                if (n.ms < elapsedMillis) {
+                    better += size(n.left) + 1;
+                    n = n.right;
+                } else {
+                    n = n.left;
+                }
+            }
+            long rank = better + 1;
+            return rank > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) rank;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 빠른 순서로 최대 limit개. 같은 기록은 먼저 들어온 것이 앞선다.
+    public List<HighscoreRepository.Record> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<HighscoreRepository.Record> out = new ArrayList<>(Math.min(limit, size(root)));
+            java.util.ArrayDeque<Node> stack = new java.util.ArrayDeque<>();
+            Node n = root;
+            while ((n != null || !stack.isEmpty()) && out.size() < limit) {
+                while (n != null) {
+                    stack.push(n);
+                    n = n.left;
+                }
+                n = stack.pop();
+                out.add(n.record);
+                n = n.right;
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // DB 조회 직전에 부른다. 이후 add된 기록은 replace에서 스냅샷과 맞춰 본다.
+    public void beginResync() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortResync() {
+        lock.writeLock().lock();
+        try {
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // rows는 elapsed_ms, id 순으로 정렬된 DB 전체 기록
+    // 새 트리는 잠금 밖에서 만들고, 잠금 안에서는 늦게 들어온 기록만 맞춰 넣고 루트를 바꾼다.
+    public void replace(List<HighscoreRepository.Record> rows) {
+        Node fresh = null;
+        long seq = 0;
+        for (HighscoreRepository.Record r : rows) {
+            fresh = insert(fresh, new Node(r, seq++));
+        }
+        lock.writeLock().lock();
+        try {
+            List<HighscoreRepository.Record> late = pending != null ? pending : new ArrayList<>();
+            pending = null;
+            Map<String, Integer> inSnapshot = new HashMap<>();
+            for (HighscoreRepository.Record r : late) {
+                String key = keyOf(r);
+                Integer c = inSnapshot.get(key);
+                if (c == null) c = countSame(fresh, r.getElapsedMillis(), key);
+                if (c > 0) {
+                    inSnapshot.put(key, c - 1);
+                } else {
+                    inSnapshot.put(key, 0);
+                    fresh = insert(fresh, new Node(r, seq++));
+                }
+            }
+            root = fresh;
+            nextSeq = seq;
+            loaded = true;
+            resyncCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 스냅샷 트리에서 elapsed가 같은 구간만 훑어 같은 기록 수를 센다.
+    private static int countSame(Node t, long ms, String key) {
+        if (t == null) return 0;
+        if (t.ms < ms) return countSame(t.right, ms, key);
+        if (t.ms > ms) return countSame(t.left, ms, key);
+        int self = keyOf(t.record).equals(key) ? 1 : 0;
+        return countSame(t.left, ms, key) + countSame(t.right, ms, key) + self;
+    }
+
+    // DATETIME은 초 단위로 잘리므로 시각은 비교에서 뺀다.
+    private static String keyOf(HighscoreRepository.Record r) {
+        return r.getNickname() + '\t' + r.getElapsedMillis() + '\t' + r.getSeedId();
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static Node insert(Node t, Node x) {
+        if (t == null) return x;
+        if (x.ms < t.ms || (x.ms == t.ms && x.seq < t.seq)) {
+            t.left = insert(t.left, x);
+            t.size++;
+            if (t.left.priority > t.priority) t = rotateRight(t);
+        } else {
+            t.right = insert(t.right, x);
+            t.size++;
+            if (t.right.priority > t.priority) t = rotateLeft(t);
+        }
+        return t;
+    }
+
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        l.right = t;
+        l.size = t.size;
+        t.size = size(t.left) + size(t.right) + 1;
+        return l;
+    }
+
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        r.left = t;
+        r.size = t.size;
+        t.size = size(t.left) + size(t.right) + 1;
+        return r;
+    }
+}
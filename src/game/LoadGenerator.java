@@ -0,0 +1,137 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 루프백으로 GameServer에 많은 연결을 붙여 명령을 보내고 처리량과 지연을 잰다.
+public class LoadGenerator {
+    private static final String[] COMMANDS = {
+        "이동 동쪽", "이동 서쪽", "이동 남쪽", "이동 북쪽", "공격", "봐", "대화", "인벤토리"
+    };
+    private static final byte[][] ENCODED = new byte[COMMANDS.length][];
+    static {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            ENCODED[i] = (COMMANDS[i] + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Client {
+        final Socket socket;
+        final OutputStream out;
+        final BufferedReader in;
+
+        Client(InetAddress host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        // 빈 줄까지가 응답 하나
+        void readFrame() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) return;
+            }
+            throw new IOException("서버가 연결을 닫았습니다.");
+        }
+    }
+
+    private final InetAddress host;
+    private final int port;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong roundTripNanos = new AtomicLong();
+    private final AtomicLong rounds = new AtomicLong();
+    private long driveNanos;
+
+    public LoadGenerator(InetAddress host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    // 스레드마다 연결 묶음을 맡아, 모든 연결에 명령을 하나씩 보낸 뒤 응답을 차례로 읽는 것을 반복한다.
+    public void run(int connections, int threads, long durationMillis) throws Exception {
+        List<List<Client>> groups = new ArrayList<>();
+        for (int t = 0; t < threads; t++) groups.add(new ArrayList<>());
+        for (int i = 0; i < connections; i++) {
+            Client c = new Client(host, port);
+            c.readFrame();
+            groups.get(i % threads).add(c);
+        }
+        long t0 = System.nanoTime();
+        long deadline = System.currentTimeMillis() + durationMillis;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Client> group = groups.get(t);
+            long seed = t;
+            Thread w = new Thread(() -> drive(group, new SplittableRandom(seed), deadline), "load-" + t);
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) w.join();
+        driveNanos = System.nanoTime() - t0;
+        for (List<Client> group : groups) {
+            for (Client c : group) c.socket.close();
+        }
+    }
+
+    private void drive(List<Client> group, SplittableRandom rng, long deadline) {
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                long t0 = System.nanoTime();
+                for (Client c : group) {
+                    c.out.write(ENCODED[rng.nextInt(ENCODED.length)]);
+                    c.out.flush();
+                }
+                for (Client c : group) c.readFrame();
+                roundTripNanos.addAndGet(System.nanoTime() - t0);
+                rounds.incrementAndGet();
+                sent.addAndGet(group.size());
+            }
+        } catch (IOException e) {
+            System.err.println("부하 연결 오류: " + e.getMessage());
+        }
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public double getCommandsPerSecond() {
+        return driveNanos == 0 ? 0 : sent.get() / (driveNanos / 1e9);
+    }
+
+    public double getAverageRoundMillis() {
+        long n = rounds.get();
+        return n == 0 ? 0 : roundTripNanos.get() / 1e6 / n;
+    }
+
+    // 사용법: LoadGenerator [연결 수] [초] [부하 스레드 수] [서버 작업자 수] [nio 셀렉터 스레드 수(0이면 연결당 스레드)]
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int selectors = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (GameServer server = new GameServer(workers, 4, 4, MazeGenerator.BACKTRACKER, 42L);
+             NioFrontEnd nio = selectors > 0 ? new NioFrontEnd(server, selectors) : null) {
+            int port = nio != null ? nio.bind(loopback, 0) : server.listen(loopback, 0);
+            LoadGenerator load = new LoadGenerator(loopback, port);
+            load.run(connections, threads, seconds * 1000L);
+            GameServer.LatencyHistogram h = server.getLatency();
+            System.out.printf("연결 %d, 세션 %d, 명령 %d (%.0f/s)%n", connections, server.getSessionCount(), load.getSentCount(), load.getCommandsPerSecond());
+            System.out.printf("서버 지연 p50 %dus, p99 %dus, p99.9 %dus / 라운드 평균 %.2fms%n",
+                    h.percentileMicros(50), h.percentileMicros(99), h.percentileMicros(99.9), load.getAverageRoundMillis());
+        }
+    }
+}
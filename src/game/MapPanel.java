@@ -7,15 +7,9 @@ import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 
 public class MapPanel extends JPanel {
-    private final Game game;
-
-    private final Map<Room, int[]> roomToGrid = new HashMap<>();
+    private Game game;
 
     public MapPanel(Game game) {
         this.game = game;
@@ -23,10 +17,9 @@ public class MapPanel extends JPanel {
         setBackground(Color.WHITE);
     }
 
-    private void ensureLayout() {
-        roomToGrid.clear();
-        Map<Room, int[]> coords = game.getRoomCoordinates();
-        roomToGrid.putAll(coords);
+    public void setGame(Game game) {
+        this.game = game;
+        repaint();
     }
 
     public void refresh() {
@@ -36,67 +29,106 @@ public class MapPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        ensureLayout();
         Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        Set<Room> visited = new HashSet<>(game.getVisitedRooms());
         Room current = game.getCurrentRoomRef();
-        Set<Room> visible = new HashSet<>(visited);
-        if (current != null) {
-            visible.add(current);
-            for (Map.Entry<String, Room> e : current.getExits().entrySet()) {
-                if (e.getValue() != null) visible.add(e.getValue());
-            }
+        if (current == null) return;
+        int curX = current.getX();
+        int curY = current.getY();
+        long[] near = new long[5];
+        int n = 0;
+        near[n++] = key(curX, curY);
+        for (Room r : current.getExits().values()) {
+            near[n++] = key(r.getX(), r.getY());
         }
 
         int cell = 80;
         int radius = 18;
+        int originX = 40;
+        int originY = 40;
+        if (game.isOpenWorld() || (long) game.getWidth() * cell > getWidth() || (long) game.getHeight() * cell > getHeight()) {
+            originX = getWidth() / 2 - curX * cell;
+            originY = getHeight() / 2 - curY * cell;
+        }
+        int x0 = Math.floorDiv(-originX, cell) - 1;
+        int y0 = Math.floorDiv(-originY, cell) - 1;
+        int x1 = Math.floorDiv(getWidth() - originX, cell) + 1;
+        int y1 = Math.floorDiv(getHeight() - originY, cell) + 1;
+        if (!game.isOpenWorld()) {
+            x0 = Math.max(0, x0);
+            y0 = Math.max(0, y0);
+            x1 = Math.min(game.getWidth() - 1, x1);
+            y1 = Math.min(game.getHeight() - 1, y1);
+        }
 
         g2.setColor(new Color(200, 200, 200));
-        for (Room r : visible) {
-            int[] pos = roomToGrid.get(r);
-            if (pos == null) continue;
-            int cx = 40 + pos[0] * cell;
-            int cy = 40 + pos[1] * cell;
-            for (Map.Entry<String, Room> e : r.getExits().entrySet()) {
-                Room neighbor = e.getValue();
-                if (!visible.contains(neighbor)) continue; 
-                int[] npos = roomToGrid.get(neighbor);
-                if (npos == null) continue;
-                int nx = 40 + npos[0] * cell;
-                int ny = 40 + npos[1] * cell;
-                g2.drawLine(cx, cy, nx, ny);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                World world = game.worldAt(x, y);
+                if (world == null) continue;
+                int c = world.cellOf(x - world.getOriginX(), y - world.getOriginY());
+                if (!isVisible(world, c, x, y, near, n)) continue;
+                int mask = world.fullExitMask(c);
+                int cx = originX + x * cell;
+                int cy = originY + y * cell;
+                if ((mask & Direction.EAST.bit()) != 0 && isVisible(x + 1, y, near, n)) {
+                    g2.drawLine(cx, cy, cx + cell, cy);
+                }
+                if ((mask & Direction.SOUTH.bit()) != 0 && isVisible(x, y + 1, near, n)) {
+                    g2.drawLine(cx, cy, cx, cy + cell);
+                }
             }
         }
 
-        for (Room r : visible) {
-            int[] pos = roomToGrid.get(r);
-            if (pos == null) continue;
-            int x = 40 + pos[0] * cell - radius;
-            int y = 40 + pos[1] * cell - radius;
-            if (r == current) {
-                g2.setColor(new Color(66, 135, 245));
-            } else {
-                g2.setColor(new Color(120, 120, 120));
-            }
-            g2.fillRect(x, y, radius * 2, radius * 2);
-            g2.setColor(Color.BLACK);
-            g2.drawRect(x, y, radius * 2, radius * 2);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                World world = game.worldAt(x, y);
+                if (world == null) continue;
+                int c = world.cellOf(x - world.getOriginX(), y - world.getOriginY());
+                if (!isVisible(world, c, x, y, near, n)) continue;
+                int rx = originX + x * cell - radius;
+                int ry = originY + y * cell - radius;
+                if (x == curX && y == curY) {
+                    g2.setColor(new Color(66, 135, 245));
+                } else {
+                    g2.setColor(new Color(120, 120, 120));
+                }
+                g2.fillRect(rx, ry, radius * 2, radius * 2);
+                g2.setColor(Color.BLACK);
+                g2.drawRect(rx, ry, radius * 2, radius * 2);
 
-            if (r.getMonster() != null && !r.getMonster().isDead()) {
-                g2.setColor(new Color(200, 50, 50));
-                g2.fillOval(x + 3, y + 3, 10, 10);
-            }
-            if (!r.getItems().isEmpty()) {
-                g2.setColor(new Color(230, 160, 40));
-                g2.fillOval(x + radius * 2 - 13, y + radius * 2 - 13, 10, 10);
+                if (world.hasMonster(c)) {
+                    g2.setColor(new Color(200, 50, 50));
+                    g2.fillOval(rx + 3, ry + 3, 10, 10);
+                }
+                if (world.hasItem(c)) {
+                    g2.setColor(new Color(230, 160, 40));
+                    g2.fillOval(rx + radius * 2 - 13, ry + radius * 2 - 13, 10, 10);
+                }
             }
         }
 
         g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 12f));
         g2.setColor(Color.DARK_GRAY);
     }
-}
 
+    private boolean isVisible(int x, int y, long[] near, int n) {
+        World world = game.worldAt(x, y);
+        if (world == null) return false;
+        return isVisible(world, world.cellOf(x - world.getOriginX(), y - world.getOriginY()), x, y, near, n);
+    }
 
+    private static boolean isVisible(World world, int c, int x, int y, long[] near, int n) {
+        if (world.isVisited(c)) return true;
+        long k = key(x, y);
+        for (int i = 0; i < n; i++) {
+            if (near[i] == k) return true;
+        }
+        return false;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
@@ -0,0 +1,94 @@
+package game;
+
+public final class MazeCarver {
+    static final Direction[] CARVE_ORDER = { Direction.EAST, Direction.WEST, Direction.SOUTH, Direction.NORTH };
+    private static final byte[][] PERMUTATIONS = buildPermutations();
+
+    private MazeCarver() {
+    }
+
+    // {동,서,남,북} 배열을 rng.nextInt(4), nextInt(3), nextInt(2) 순으로 섞은 결과 24가지를 미리 계산한다.
+    private static byte[][] buildPermutations() {
+        byte[][] table = new byte[24][];
+        for (int j4 = 0; j4 < 4; j4++) {
+            for (int j3 = 0; j3 < 3; j3++) {
+                for (int j2 = 0; j2 < 2; j2++) {
+                    byte[] p = { 0, 1, 2, 3 };
+                    swap(p, 3, j4);
+                    swap(p, 2, j3);
+                    swap(p, 1, j2);
+                    table[j4 * 6 + j3 * 2 + j2] = p;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static void swap(byte[] p, int i, int j) {
+        byte tmp = p[i];
+        p[i] = p[j];
+        p[j] = tmp;
+    }
+
+    static byte[] nextPermutation(java.util.Random rng) {
+        int j4 = rng.nextInt(4);
+        int j3 = rng.nextInt(3);
+        int j2 = rng.nextInt(2);
+        return PERMUTATIONS[j4 * 6 + j3 * 2 + j2];
+    }
+
+    public static void carveBacktracker(World world, java.util.Random rng) {
+        carveBacktracker(world, rng, 0, 0, world.getWidth(), world.getHeight());
+    }
+
+    // [x0, x1) x [y0, y1) 사각형 안에서만 파고, 사각형 밖의 칸은 건드리지 않는다.
+    static void carveBacktracker(World world, java.util.Random rng, int x0, int y0, int x1, int y1) {
+        int width = world.getWidth();
+        int start = world.cellOf(x0, y0);
+        int[] stack = new int[(x1 - x0) * (y1 - y0)];
+        int sp = 0;
+        stack[sp++] = start;
+
+        while (sp > 0) {
+            int c = stack[sp - 1];
+            int cx = c % width;
+            int cy = c / width;
+            byte[] perm = nextPermutation(rng);
+
+            boolean moved = false;
+            for (int k = 0; k < 4; k++) {
+                Direction d = CARVE_ORDER[perm[k]];
+                int nx = cx + d.getDx();
+                int ny = cy + d.getDy();
+                if (nx < x0 || ny < y0 || nx >= x1 || ny >= y1) continue;
+                int next = ny * width + nx;
+                if (next == start || world.exitMask(next) != 0) continue;
+                world.link(c, next, d);
+                stack[sp++] = next;
+                moved = true;
+                break;
+            }
+            if (!moved) {
+                sp--;
+            }
+        }
+    }
+
+    public static void addRandomLoops(World world, int loopCount, java.util.Random rng) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        for (int i = 0; i < loopCount; i++) {
+            int x = rng.nextInt(width);
+            int y = rng.nextInt(height);
+            byte[] perm = nextPermutation(rng);
+            for (int k = 0; k < 4; k++) {
+                Direction d = CARVE_ORDER[perm[k]];
+                int nx = x + d.getDx();
+                int ny = y + d.getDy();
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                world.link(y * width + x, ny * width + nx, d);
+                break;
+            }
+        }
+    }
+}
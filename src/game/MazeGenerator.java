@@ -0,0 +1,24 @@
+package game;
+
+public interface MazeGenerator {
+    MazeGenerator BACKTRACKER = new BacktrackerMazeGenerator();
+    MazeGenerator WILSON = new WilsonMazeGenerator();
+    MazeGenerator ELLER = new EllerMazeGenerator();
+    MazeGenerator GROWING_TREE = new GrowingTreeMazeGenerator(0.5);
+    MazeGenerator PARALLEL = new ParallelMazeGenerator(ParallelMazeGenerator.DEFAULT_REGION_SIZE);
+
+    String getName();
+
+    void generate(World world, java.util.Random rng);
+
+    static java.util.List<MazeGenerator> all() {
+        return java.util.List.of(BACKTRACKER, WILSON, ELLER, GROWING_TREE, PARALLEL);
+    }
+
+    static MazeGenerator byName(String name) {
+        for (MazeGenerator g : all()) {
+            if (g.getName().equalsIgnoreCase(name)) return g;
+        }
+        throw new IllegalArgumentException("알 수 없는 미로 생성기: " + name);
+    }
+}
@@ -5,12 +5,24 @@ public class Monster {
     private int health;
     private final int attackDamage;
     private final boolean boss;
+    private final World world;
+    private final int cell;
 
     public Monster(String name, int health, int attackDamage, boolean boss) {
         this.name = name;
         this.health = health;
         this.attackDamage = attackDamage;
         this.boss = boss;
+        this.world = null;
+        this.cell = -1;
+    }
+
+    Monster(World world, int cell, Monster kind) {
+        this.name = kind.name;
+        this.attackDamage = kind.attackDamage;
+        this.boss = kind.boss;
+        this.world = world;
+        this.cell = cell;
     }
 
     public String getName() {
@@ -18,7 +30,7 @@ public class Monster {
     }
 
     public int getHealth() {
-        return health;
+        return world != null ? world.getMonsterHealth(cell) : health;
     }
 
     public int getAttackDamage() {
@@ -30,12 +42,15 @@ public class Monster {
     }
 
     public void damage(int amount) {
-        health = Math.max(0, health - amount);
+        int next = Math.max(0, getHealth() - amount);
+        if (world != null) {
+            world.setMonsterHealth(cell, next);
+        } else {
+            health = next;
+        }
     }
 
     public boolean isDead() {
-        return health <= 0;
+        return getHealth() <= 0;
     }
 }
-
-
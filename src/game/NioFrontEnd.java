@@ -0,0 +1,332 @@
+package game;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// GameServer 앞단의 논블로킹 줄 프로토콜. 셀렉터 스레드 몇 개가 모든 연결을 맡고, 명령 실행은 세션 메일박스에 넘긴다.
+public class NioFrontEnd implements AutoCloseable {
+    // 이보다 긴 줄을 보내는 연결은 끊는다.
+    private static final int MAX_LINE = 1024;
+    // 응답을 기다리는 명령이 이만큼 쌓이면 그 연결은 읽기를 멈춘다.
+    private static final int MAX_IN_FLIGHT = 64;
+    private static final int MAX_GATHER = 16;
+
+    private final GameServer server;
+    private final Loop[] loops;
+    private ServerSocketChannel acceptor;
+    private int nextLoop;
+    private volatile boolean closed;
+
+    private final class Conn {
+        final SocketChannel channel;
+        final GameServer.Session session;
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        SelectionKey key;
+        byte[] partial;
+        int partialLength;
+        int inFlight;
+        boolean closing;
+
+        Conn(SocketChannel channel, GameServer.Session session) {
+            this.channel = channel;
+            this.session = session;
+        }
+    }
+
+    private final class Loop implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean wakePending = new AtomicBoolean();
+        // 읽기 버퍼와 디코더는 스레드마다 하나씩 두고 모든 연결이 돌려 쓴다.
+        final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final CharBuffer chars = CharBuffer.allocate(MAX_LINE);
+        final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+        Loop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "nio-loop-" + index);
+            thread.setDaemon(true);
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            if (wakePending.compareAndSet(false, true)) selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                try {
+                    selector.select();
+                    wakePending.set(false);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) task.run();
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Conn c = (Conn) key.attachment();
+                        try {
+                            if (key.isReadable()) read(c);
+                            if (key.isValid() && key.isWritable()) flush(c);
+                        } catch (IOException e) {
+                            close(c);
+                        }
+                    }
+                } catch (IOException e) {
+                    if (!closed) System.err.println("셀렉터 오류: " + e.getMessage());
+                }
+            }
+            shutdown();
+        }
+
+        // 밀린 작업(넘겨받은 연결 등록 포함)을 마저 돌린 뒤, 등록된 연결과 그 세션을 모두 닫고 셀렉터를 닫는다.
+        private void shutdown() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("종료 중 작업 실패: " + e.getMessage());
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Conn) {
+                    close((Conn) key.attachment());
+                } else {
+                    key.cancel();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignore) {
+            }
+        }
+
+        void adopt(SocketChannel channel) {
+            GameServer.Session session;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                session = server.open();
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(channel);
+                return;
+            }
+            Conn c = new Conn(channel, session);
+            try {
+                c.key = channel.register(selector, SelectionKey.OP_READ, c);
+            } catch (IOException e) {
+                server.closeSession(session.getId());
+                closeQuietly(channel);
+                return;
+            }
+            c.inFlight++;
+            session.call(Game::getCurrentDescription).whenComplete((reply, ex) -> execute(() -> deliver(c, reply, ex)));
+        }
+
+        void read(Conn c) throws IOException {
+            ByteBuffer buf = readBuffer;
+            buf.clear();
+            int n = c.channel.read(buf);
+            if (n < 0) {
+                close(c);
+                return;
+            }
+            buf.flip();
+            int start = 0;
+            int limit = buf.limit();
+            for (int i = 0; i < limit; i++) {
+                if (buf.get(i) != '\n') continue;
+                String line;
+                if (c.partialLength > 0) {
+                    appendPartial(c, buf, start, i);
+                    if (!c.channel.isOpen()) return;
+                    line = decode(ByteBuffer.wrap(c.partial, 0, c.partialLength));
+                    c.partialLength = 0;
+                } else {
+                    if (i - start > MAX_LINE) {
+                        close(c);
+                        return;
+                    }
+                    buf.limit(i).position(start);
+                    line = decode(buf);
+                    buf.limit(limit);
+                }
+                start = i + 1;
+                dispatch(c, line);
+            }
+            if (start < limit) appendPartial(c, buf, start, limit);
+            if (c.inFlight >= MAX_IN_FLIGHT && c.key.isValid()) {
+                c.key.interestOps(c.key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        // 줄이 읽기 한 번에 다 오지 않았을 때만 연결별 배열을 쓴다.
+        private void appendPartial(Conn c, ByteBuffer buf, int from, int to) {
+            int len = to - from;
+            if (c.partialLength + len > MAX_LINE) {
+                close(c);
+                return;
+            }
+            if (c.partial == null) c.partial = new byte[MAX_LINE];
+            for (int i = 0; i < len; i++) c.partial[c.partialLength + i] = buf.get(from + i);
+            c.partialLength += len;
+        }
+
+        private String decode(ByteBuffer bytes) {
+            chars.clear();
+            decoder.reset();
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            int end = chars.position();
+            if (end > 0 && chars.get(end - 1) == '\r') end--;
+            return new String(chars.array(), 0, end);
+        }
+
+        private void dispatch(Conn c, String line) {
+            c.inFlight++;
+            c.session.submit(line).whenComplete((reply, ex) -> execute(() -> deliver(c, reply, ex)));
+        }
+
+        private void deliver(Conn c, String reply, Throwable ex) {
+            c.inFlight--;
+            if (!c.channel.isOpen()) return;
+            if (ex != null) {
+                close(c);
+                return;
+            }
+            c.out.add(ByteBuffer.wrap(GameServer.frame(reply).getBytes(StandardCharsets.UTF_8)));
+            if (!c.session.isOpen()) c.closing = true;
+            try {
+                flush(c);
+            } catch (IOException e) {
+                close(c);
+            }
+        }
+
+        // 밀린 응답을 gathering write 한 번으로 보낸다.
+        void flush(Conn c) throws IOException {
+            while (!c.out.isEmpty()) {
+                int k = 0;
+                for (ByteBuffer b : c.out) {
+                    if (k == MAX_GATHER) break;
+                    gather[k++] = b;
+                }
+                c.channel.write(gather, 0, k);
+                java.util.Arrays.fill(gather, 0, k, null);
+                while (!c.out.isEmpty() && !c.out.peekFirst().hasRemaining()) c.out.pollFirst();
+                // 소켓 버퍼가 차서 덜 나갔으면 OP_WRITE를 기다린다.
+                if (!c.out.isEmpty() && c.out.peekFirst().position() > 0) break;
+            }
+            if (!c.key.isValid()) return;
+            if (c.out.isEmpty() && c.closing) {
+                close(c);
+                return;
+            }
+            int ops = c.out.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+            if (c.inFlight < MAX_IN_FLIGHT && !c.closing) ops |= SelectionKey.OP_READ;
+            c.key.interestOps(ops);
+        }
+
+        void close(Conn c) {
+            if (c.key != null) c.key.cancel();
+            closeQuietly(c.channel);
+            c.closing = true;
+            c.out.clear();
+            server.closeSession(c.session.getId());
+        }
+    }
+
+    public NioFrontEnd(GameServer server, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("셀렉터 스레드 수는 1 이상이어야 합니다: " + threads);
+        }
+        this.server = server;
+        this.loops = new Loop[threads];
+        for (int i = 0; i < threads; i++) {
+            loops[i] = new Loop(i);
+            loops[i].thread.start();
+        }
+    }
+
+    // 수락은 첫 번째 셀렉터 스레드가 맡고, 받은 연결은 스레드들에 돌아가며 나눈다.
+    public int bind(InetAddress address, int port) throws IOException {
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        ch.bind(new InetSocketAddress(address, port), 4096);
+        ch.configureBlocking(false);
+        acceptor = ch;
+        loops[0].execute(() -> {
+            try {
+                ch.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+            } catch (IOException e) {
+                System.err.println("수락 등록 실패: " + e.getMessage());
+            }
+        });
+        return ((InetSocketAddress) ch.getLocalAddress()).getPort();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptor.accept()) != null) {
+            Loop loop = loops[nextLoop++ % loops.length];
+            SocketChannel accepted = channel;
+            if (loop == loops[0]) {
+                loop.adopt(accepted);
+            } else {
+                loop.execute(() -> loop.adopt(accepted));
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (acceptor != null) {
+            try {
+                acceptor.close();
+            } catch (IOException ignore) {
+            }
+        }
+        for (Loop loop : loops) loop.selector.wakeup();
+        for (Loop loop : loops) {
+            if (loop.thread == Thread.currentThread()) continue;
+            try {
+                loop.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
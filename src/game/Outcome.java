@@ -0,0 +1,24 @@
+package game;
+
+public enum Outcome {
+    MOVED,
+    BLOCKED,
+    NO_EXIT,
+    LOCKED,
+    PICKED_UP,
+    NOT_FOUND,
+    NOT_HELD,
+    HEALED,
+    UNLOCKED,
+    NOT_USABLE,
+    EQUIPPED,
+    NOT_EQUIPPABLE,
+    NO_TARGET,
+    HIT,
+    KILLED,
+    PLAYER_DIED,
+    CLEARED,
+    TALKED,
+    QUIT,
+    IGNORED
+}
@@ -0,0 +1,104 @@
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelMazeGenerator implements MazeGenerator {
+    public static final int DEFAULT_REGION_SIZE = 128;
+
+    private final int regionSize;
+    private final ForkJoinPool pool;
+
+    public ParallelMazeGenerator(int regionSize) {
+        this(regionSize, ForkJoinPool.commonPool());
+    }
+
+    public ParallelMazeGenerator(int regionSize, ForkJoinPool pool) {
+        if (regionSize < 2) {
+            throw new IllegalArgumentException("구역 크기는 2 이상이어야 합니다: " + regionSize);
+        }
+        this.regionSize = regionSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "parallel";
+    }
+
+    public int getRegionSize() {
+        return regionSize;
+    }
+
+    // 구역별 시드를 스레드와 무관하게 먼저 정해 두므로, 몇 개의 스레드로 돌려도 결과가 같다.
+    @Override
+    public void generate(World world, java.util.Random rng) {
+        int regionsX = (world.getWidth() + regionSize - 1) / regionSize;
+        int regionsY = (world.getHeight() + regionSize - 1) / regionSize;
+        SplittableRandom root = new SplittableRandom(rng.nextLong());
+        long[] seeds = new long[regionsX * regionsY];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = root.split().nextLong();
+        }
+        pool.invoke(new RegionTask(world, seeds, regionsX, 0, seeds.length));
+        connectRegions(world, regionsX, regionsY, new java.util.Random(root.nextLong()));
+    }
+
+    // 구역들을 한 칸짜리 방으로 보고 미로를 판 뒤, 이어진 구역 사이 경계마다 문 하나를 낸다.
+    private void connectRegions(World world, int regionsX, int regionsY, java.util.Random rng) {
+        World regions = new World(regionsX, regionsY, "");
+        MazeCarver.carveBacktracker(regions, rng);
+        int width = world.getWidth();
+        int height = world.getHeight();
+        for (int r = 0; r < regions.size(); r++) {
+            int rx = r % regionsX;
+            int ry = r / regionsX;
+            int mask = regions.exitMask(r);
+            if ((mask & Direction.EAST.bit()) != 0) {
+                int y0 = ry * regionSize;
+                int y = y0 + rng.nextInt(Math.min(height, y0 + regionSize) - y0);
+                int x = (rx + 1) * regionSize - 1;
+                world.link(world.cellOf(x, y), world.cellOf(x + 1, y), Direction.EAST);
+            }
+            if ((mask & Direction.SOUTH.bit()) != 0) {
+                int x0 = rx * regionSize;
+                int x = x0 + rng.nextInt(Math.min(width, x0 + regionSize) - x0);
+                int y = (ry + 1) * regionSize - 1;
+                world.link(world.cellOf(x, y), world.cellOf(x, y + 1), Direction.SOUTH);
+            }
+        }
+    }
+
+    private final class RegionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final World world;
+        private final long[] seeds;
+        private final int regionsX;
+        private final int from;
+        private final int to;
+
+        RegionTask(World world, long[] seeds, int regionsX, int from, int to) {
+            this.world = world;
+            this.seeds = seeds;
+            this.regionsX = regionsX;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RegionTask(world, seeds, regionsX, from, mid),
+                        new RegionTask(world, seeds, regionsX, mid, to));
+                return;
+            }
+            int x0 = (from % regionsX) * regionSize;
+            int y0 = (from / regionsX) * regionSize;
+            int x1 = Math.min(world.getWidth(), x0 + regionSize);
+            int y1 = Math.min(world.getHeight(), y0 + regionSize);
+            MazeCarver.carveBacktracker(world, new java.util.Random(seeds[from]), x0, y0, x1, y1);
+        }
+    }
+}
@@ -10,7 +10,7 @@ public class Player {
     private final List<Item> inventory = new ArrayList<>();
     private int health = 100;
     private int weaponBonusDamage = 0;
-    private final java.util.Random attackRng = new java.util.Random();
+    private java.util.Random attackRng = new java.util.Random();
 
     public Player(Room startingRoom) {
         this.currentRoom = startingRoom;
@@ -48,6 +48,22 @@ public class Player {
         health = Math.min(100, health + amount);
     }
 
+    public void reseedAttack(long seed) {
+        attackRng = new LcgRandom(seed);
+    }
+
+    java.util.Random getAttackRng() {
+        return attackRng;
+    }
+
+    // 스냅샷 복원용. 인벤토리는 비어 있는 새 Player에만 채운다.
+    void restore(int health, int weaponBonusDamage, List<Item> items, java.util.Random attackRng) {
+        this.health = health;
+        this.weaponBonusDamage = weaponBonusDamage;
+        this.inventory.addAll(items);
+        this.attackRng = attackRng;
+    }
+
     public int getAttackDamage() {
         int base = 8 + attackRng.nextInt(3);
         return Math.max(0, base + weaponBonusDamage);
@@ -0,0 +1,132 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RegionStore implements AutoCloseable {
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean deleteOnClose;
+    private final Map<Long, long[]> index = new HashMap<>();
+    private long end;
+
+    public RegionStore(Path path) throws IOException {
+        this(path, false);
+    }
+
+    // 색인은 메모리에만 있으므로 이미 내용이 있는 파일은 이어 쓸 수 없다. 남의 파일을 지우지 않도록 비어 있지 않으면 거부한다.
+    private RegionStore(Path path, boolean deleteOnClose) throws IOException {
+        this.path = path;
+        this.deleteOnClose = deleteOnClose;
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (ch.size() > 0) {
+                throw new IOException("이미 내용이 있는 리전 파일입니다: " + path);
+            }
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+        this.channel = ch;
+    }
+
+    public static RegionStore createTemp() {
+        try {
+            Path p = Files.createTempFile("dungeon-", ".region");
+            p.toFile().deleteOnExit();
+            return new RegionStore(p, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("리전 파일 생성 실패: " + e.getMessage(), e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean contains(long key) {
+        return index.containsKey(key);
+    }
+
+    public int getRegionCount() {
+        return index.size();
+    }
+
+    public long getFileBytes() {
+        return end;
+    }
+
+    // 기존 칸에 들어가면 제자리에 덮어쓰고, 아니면 파일 끝에 붙인다.
+    public void write(long key, byte[] data) {
+        long[] slot = index.get(key);
+        long offset;
+        if (slot != null && data.length <= slot[2]) {
+            offset = slot[0];
+        } else {
+            offset = end;
+            end += data.length;
+        }
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            long pos = offset;
+            while (buf.hasRemaining()) {
+                pos += channel.write(buf, pos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("리전 기록 실패: " + e.getMessage(), e);
+        }
+        long capacity = slot != null && offset == slot[0] ? slot[2] : data.length;
+        index.put(key, new long[] { offset, data.length, capacity });
+    }
+
+    public MappedByteBuffer map(long key) {
+        long[] slot = index.get(key);
+        if (slot == null) return null;
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, slot[0], slot[1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("리전 읽기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // 작은 항목은 매핑보다 위치 지정 읽기가 싸다.
+    public byte[] read(long key) {
+        long[] slot = index.get(key);
+        if (slot == null) return null;
+        ByteBuffer buf = ByteBuffer.allocate((int) slot[1]);
+        try {
+            long pos = slot[0];
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, pos);
+                if (n < 0) throw new IOException("파일이 예상보다 짧습니다.");
+                pos += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("리전 읽기 실패: " + e.getMessage(), e);
+        }
+        return buf.array();
+    }
+
+    // 색인에서만 뺀다. 파일 공간은 회수하지 않는다.
+    public void remove(long key) {
+        index.remove(key);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            if (deleteOnClose) Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("리전 파일 닫기 실패: " + e.getMessage(), e);
+        }
+    }
+}
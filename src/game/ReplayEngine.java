@@ -0,0 +1,66 @@
+package game;
+
+public class ReplayEngine {
+    public static class Result {
+        private final int seed;
+        private final boolean deterministicCombat;
+        private final boolean cleared;
+        private final int playerHealth;
+        private final long elapsedMillis;
+        private final long actionCount;
+
+        Result(int seed, boolean deterministicCombat, boolean cleared, int playerHealth, long elapsedMillis, long actionCount) {
+            this.seed = seed;
+            this.deterministicCombat = deterministicCombat;
+            this.cleared = cleared;
+            this.playerHealth = playerHealth;
+            this.elapsedMillis = elapsedMillis;
+            this.actionCount = actionCount;
+        }
+
+        public int getSeed() {
+            return seed;
+        }
+
+        public boolean isDeterministicCombat() {
+            return deterministicCombat;
+        }
+
+        public boolean isCleared() {
+            return cleared;
+        }
+
+        public int getPlayerHealth() {
+            return playerHealth;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getActionCount() {
+            return actionCount;
+        }
+
+        // 전투가 결정적으로 기록됐고, 다시 돌려도 같은 시드에서 같은 시간에 클리어해야 인정한다.
+        public boolean confirms(int seedId, long claimedElapsedMillis) {
+            return deterministicCombat && cleared && seed == seedId && elapsedMillis == claimedElapsedMillis;
+        }
+    }
+
+    public Result replay(byte[] log) {
+        ActionLog.Reader reader = ActionLog.read(log);
+        long[] now = { 0L };
+        Game game = new Game();
+        game.setClock(() -> now[0]);
+        game.setDeterministicCombat(reader.isDeterministicCombat());
+        game.setupGame(reader.getSeed(), reader.getWidth(), reader.getHeight(), MazeGenerator.byName(reader.getGeneratorName()));
+        long actions = 0;
+        while (reader.next()) {
+            now[0] = reader.getMillis();
+            game.apply(reader.getAction());
+            actions++;
+        }
+        return new Result(reader.getSeed(), reader.isDeterministicCombat(), game.isCleared(), game.getPlayerHealth(), game.getElapsedMillis(), actions);
+    }
+}
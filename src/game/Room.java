@@ -1,106 +1,130 @@
 package game;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Room {
-    private String description;
-    private final Map<String, Room> exits = new HashMap<>();
-    private final List<Item> items = new ArrayList<>();
-    private boolean locked = false;
-    private String requiredItemName = null;
-    private String npcName = null;
-    private String npcDialog = null;
-    private Monster monster = null;
+    private final World world;
+    private final int cell;
 
-    public Room(String description) {
-        this.description = description;
+    Room(World world, int cell) {
+        this.world = world;
+        this.cell = cell;
     }
 
-    public void setExit(String direction, Room neighbor) {
-        exits.put(direction, neighbor);
+    public World getWorld() {
+        return world;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    public int getX() {
+        return world.getOriginX() + world.xOf(cell);
+    }
+
+    public int getY() {
+        return world.getOriginY() + world.yOf(cell);
     }
 
     public String getDescription() {
-        return description;
+        return world.getDescription(cell);
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        world.setDescription(cell, description);
     }
 
     public Room getExit(String direction) {
-        return exits.get(direction);
+        Direction d = Direction.fromLabel(direction);
+        return d == null ? null : getExit(d);
+    }
+
+    public Room getExit(Direction direction) {
+        int next = world.neighbor(cell, direction);
+        if (next >= 0) return new Room(world, next);
+        return world.crossPortal(cell, direction);
     }
 
     public Map<String, Room> getExits() {
+        Map<String, Room> exits = new LinkedHashMap<>(8);
+        for (Direction d : Direction.values()) {
+            Room r = getExit(d);
+            if (r != null) exits.put(d.getLabel(), r);
+        }
         return Collections.unmodifiableMap(exits);
     }
 
+    public int getExitCount() {
+        return Integer.bitCount(world.fullExitMask(cell));
+    }
+
     public List<Item> getItems() {
-        return items;
+        Item item = world.getItem(cell);
+        return item == null ? Collections.emptyList() : Collections.singletonList(item);
     }
 
     public void addItem(Item item) {
-        items.add(item);
+        world.setItem(cell, item);
     }
 
     public Item takeItemByName(String name) {
-        for (int i = 0; i < items.size(); i++) {
-            Item it = items.get(i);
-            if (it.getName().equalsIgnoreCase(name)) {
-                items.remove(i);
-                return it;
-            }
+        Item item = world.getItem(cell);
+        if (item != null && item.getName().equalsIgnoreCase(name)) {
+            return world.takeItem(cell);
         }
         return null;
     }
 
     public boolean isLocked() {
-        return locked;
+        return world.isLocked(cell);
     }
 
     public void lockWithItem(String requiredItemName) {
-        this.locked = true;
-        this.requiredItemName = requiredItemName;
+        world.lock(cell, requiredItemName);
     }
 
     public boolean unlock(String usedItemName) {
-        if (locked && requiredItemName != null && requiredItemName.equalsIgnoreCase(usedItemName)) {
-            locked = false;
-            return true;
-        }
-        return false;
+        return world.unlock(cell, usedItemName);
     }
 
     public void setNpc(String name, String dialog) {
-        this.npcName = name;
-        this.npcDialog = dialog;
+        world.setNpc(cell, name, dialog);
     }
 
     public boolean hasNpc() {
-        return npcName != null;
+        return world.hasNpc(cell);
     }
 
     public String talkToNpc() {
-        if (npcName == null) return "여기엔 아무도 없습니다.";
-        return npcName + ": " + (npcDialog == null ? "..." : npcDialog);
+        return world.talkToNpc(cell);
     }
 
     public void setMonster(Monster monster) {
-        this.monster = monster;
+        world.setMonster(cell, monster);
     }
 
     public Monster getMonster() {
-        return monster;
+        return world.getMonster(cell);
     }
 
     public void clearMonster() {
-        this.monster = null;
+        world.clearMonster(cell);
     }
-}
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Room)) return false;
+        Room other = (Room) o;
+        return world == other.world && cell == other.cell;
+    }
 
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(world) * 31 + cell;
+    }
+}
@@ -0,0 +1,156 @@
+package game;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ScoreVerifier implements AutoCloseable {
+    public static final int MAX_COMMANDS = 200_000;
+    public static final long MAX_CELLS = 1L << 20;
+    // 버튼으로 입력하는 사람이 낼 수 없는 간격. 시각은 클라이언트가 보내므로 기록 시간의 하한만 서버가 보장한다.
+    public static final long MIN_COMMAND_GAP_MS = 50;
+
+    public static class Verdict {
+        private final Submission submission;
+        private final boolean accepted;
+        private final String reason;
+        private final long elapsedMillis;
+
+        Verdict(Submission submission, boolean accepted, String reason, long elapsedMillis) {
+            this.submission = submission;
+            this.accepted = accepted;
+            this.reason = reason;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Submission getSubmission() {
+            return submission;
+        }
+
+        public boolean isAccepted() {
+            return accepted;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final HighscoreSink sink;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    // 큐가 가득 차면 기다리지 않고 바로 거절해서 제출 지연이 큐 길이 이상으로 늘지 않게 한다.
+    public ScoreVerifier(int threads, int queueCapacity, HighscoreSink sink) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("스레드 수와 큐 크기는 1 이상이어야 합니다.");
+        }
+        this.sink = sink;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "score-verifier");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Verdict> submit(Submission submission) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Verdict v = verify(submission);
+                if (v.isAccepted()) {
+                    if (sink != null) {
+                        sink.insertRecord(submission.getNickname(), v.getElapsedMillis(), LocalDateTime.now(), submission.getSeedId());
+                    }
+                    accepted.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+                totalLatencyNanos.addAndGet(System.nanoTime() - queuedAt);
+                return v;
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("검증 대기열이 가득 찼습니다. 잠시 후 다시 제출하세요.", e));
+        }
+    }
+
+    // 제출된 명령을 결정적 전투 모드에서 handleCommand로 다시 실행하고, 클리어 여부는 그 결과만 믿는다.
+    // 시간은 제출된 명령 시각으로 흐르므로, 명령 사이(시작 포함)가 MIN_COMMAND_GAP_MS보다 짧으면 거절한다.
+    public static Verdict verify(Submission s) {
+        if (s.getNickname() == null || !s.getNickname().matches("[A-Za-z]{3}")) {
+            return new Verdict(s, false, "닉네임은 영문 3글자여야 합니다.", 0);
+        }
+        if (s.getCommandCount() > MAX_COMMANDS) {
+            return new Verdict(s, false, "명령이 너무 많습니다: " + s.getCommandCount(), 0);
+        }
+        if (s.getWidth() < 1 || s.getHeight() < 1 || (long) s.getWidth() * s.getHeight() > MAX_CELLS) {
+            return new Verdict(s, false, "잘못된 맵 크기: " + s.getWidth() + "x" + s.getHeight(), 0);
+        }
+        MazeGenerator generator;
+        try {
+            generator = MazeGenerator.byName(s.getGeneratorName());
+        } catch (IllegalArgumentException e) {
+            return new Verdict(s, false, e.getMessage(), 0);
+        }
+        long[] now = { 0L };
+        Game game = new Game();
+        game.setClock(() -> now[0]);
+        game.setDeterministicCombat(true);
+        game.setupGame(s.getSeedId(), s.getWidth(), s.getHeight(), generator);
+        for (int i = 0; i < s.getCommandCount(); i++) {
+            long at = s.getOffset(i);
+            if (at < now[0]) {
+                return new Verdict(s, false, "명령 시각이 거꾸로 갑니다: " + (i + 1) + "번째", 0);
+            }
+            if (at - now[0] < MIN_COMMAND_GAP_MS) {
+                return new Verdict(s, false, "명령 간격이 너무 짧습니다: " + (i + 1) + "번째", 0);
+            }
+            now[0] = at;
+            game.handleCommand(s.getCommands().get(i));
+            if (game.isCleared()) {
+                return new Verdict(s, true, "검증 완료", game.getElapsedMillis());
+            }
+            if (!game.isRunning()) break;
+        }
+        return new Verdict(s, false, "다시 실행한 결과 클리어하지 못했습니다.", 0);
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    public double getAverageLatencyMillis() {
+        long done = accepted.get() + rejected.get();
+        return done == 0 ? 0.0 : totalLatencyNanos.get() / 1e6 / done;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
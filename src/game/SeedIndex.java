@@ -0,0 +1,190 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SeedIndex {
+    public enum Column {
+        BOSS_DISTANCE(2),
+        KEY_PATH_INDEX(2),
+        DEAD_ENDS(2),
+        WOLVES(1),
+        SKELETONS(1),
+        MINOTAURS(1),
+        EXPECTED_DAMAGE(2);
+
+        private final int bytes;
+
+        Column(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+
+        int max() {
+            return bytes == 1 ? 0xff : 0xffff;
+        }
+    }
+
+    private static final int MAGIC = 0x53454544;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final Column[] COLUMNS = Column.values();
+
+    private final int firstSeed;
+    private final int count;
+    private final int width;
+    private final int height;
+    private final ByteBuffer data;
+    private final int[] offsets = new int[COLUMNS.length];
+
+    private SeedIndex(int firstSeed, int count, int width, int height, ByteBuffer data) {
+        this.firstSeed = firstSeed;
+        this.count = count;
+        this.width = width;
+        this.height = height;
+        this.data = data;
+        int offset = HEADER_BYTES;
+        for (Column c : COLUMNS) {
+            offsets[c.ordinal()] = offset;
+            offset += count * c.bytes;
+        }
+    }
+
+    static long fileBytes(int count) {
+        long bytes = HEADER_BYTES;
+        for (Column c : COLUMNS) bytes += (long) count * c.bytes;
+        return bytes;
+    }
+
+    // 파일 배치 그대로의 힙 버퍼를 만든다. 스윕 작업자들은 서로 다른 시드 구간에만 쓴다.
+    static SeedIndex allocate(int firstSeed, int count, int width, int height) {
+        if (fileBytes(count) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("한 인덱스에 담기에는 시드가 너무 많습니다: " + count);
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) fileBytes(count));
+        data.putInt(0, MAGIC);
+        data.putInt(4, VERSION);
+        data.putInt(8, firstSeed);
+        data.putInt(12, count);
+        data.putInt(16, width);
+        data.putInt(20, height);
+        data.putInt(24, COLUMNS.length);
+        return new SeedIndex(firstSeed, count, width, height, data);
+    }
+
+    void set(Column column, int i, int value) {
+        int v = Math.max(0, Math.min(column.max(), value));
+        int at = offsets[column.ordinal()] + i * column.bytes;
+        if (column.bytes == 1) {
+            data.put(at, (byte) v);
+        } else {
+            data.putShort(at, (short) v);
+        }
+    }
+
+    public int get(Column column, int i) {
+        int at = offsets[column.ordinal()] + i * column.bytes;
+        return column.bytes == 1 ? data.get(at) & 0xff : data.getShort(at) & 0xffff;
+    }
+
+    public int getFirstSeed() {
+        return firstSeed;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int seedAt(int i) {
+        return firstSeed + i;
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    public void write(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer src = data.duplicate();
+            src.clear();
+            while (src.hasRemaining()) ch.write(src);
+        } catch (IOException e) {
+            throw new UncheckedIOException("시드 인덱스 저장 실패: " + e.getMessage(), e);
+        }
+    }
+
+    public static SeedIndex read(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(24) != COLUMNS.length) {
+                throw new IllegalArgumentException("시드 인덱스 파일이 아닙니다: " + path);
+            }
+            int count = data.getInt(12);
+            if (ch.size() != fileBytes(count)) {
+                throw new IllegalArgumentException("시드 인덱스 파일이 손상되었습니다: " + path);
+            }
+            return new SeedIndex(data.getInt(8), count, data.getInt(16), data.getInt(20), data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("시드 인덱스 읽기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // 조건은 열 단위 범위([min, max])로만 받는다. 열을 하나씩 훑으며 후보를 좁힌다.
+    public class Query {
+        private final int[] min = new int[COLUMNS.length];
+        private final int[] max = new int[COLUMNS.length];
+
+        private Query() {
+            for (Column c : COLUMNS) max[c.ordinal()] = c.max();
+        }
+
+        public Query atLeast(Column column, int value) {
+            min[column.ordinal()] = Math.max(min[column.ordinal()], value);
+            return this;
+        }
+
+        public Query atMost(Column column, int value) {
+            max[column.ordinal()] = Math.min(max[column.ordinal()], value);
+            return this;
+        }
+
+        public Query equalTo(Column column, int value) {
+            return atLeast(column, value).atMost(column, value);
+        }
+
+        public int[] seeds() {
+            int[] hits = new int[count];
+            int n = count;
+            for (int i = 0; i < n; i++) hits[i] = i;
+            for (Column c : COLUMNS) {
+                int lo = min[c.ordinal()];
+                int hi = max[c.ordinal()];
+                if (lo == 0 && hi == c.max()) continue;
+                int kept = 0;
+                for (int k = 0; k < n; k++) {
+                    int v = get(c, hits[k]);
+                    if (v >= lo && v <= hi) hits[kept++] = hits[k];
+                }
+                n = kept;
+            }
+            int[] seeds = new int[n];
+            for (int k = 0; k < n; k++) seeds[k] = seedAt(hits[k]);
+            return seeds;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package game;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SeedSweep {
+    private static final int BLOCK = 1 << 14;
+
+    private final int width;
+    private final int height;
+    private final MazeGenerator generator;
+    private final int threads;
+
+    public SeedSweep(int width, int height, MazeGenerator generator, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("스레드 수는 1 이상이어야 합니다: " + threads);
+        }
+        this.width = width;
+        this.height = height;
+        this.generator = generator;
+        this.threads = threads;
+    }
+
+    // 작업자마다 World 하나와 DungeonGenerator 하나를 두고 시드마다 비워서 다시 쓴다.
+    public SeedIndex sweep(int firstSeed, int count) {
+        SeedIndex index = SeedIndex.allocate(firstSeed, count, width, height);
+        int blocks = (count + BLOCK - 1) / BLOCK;
+        AtomicInteger nextBlock = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    World world = new World(width, height, "빈 방");
+                    DungeonGenerator dungeonGenerator = new DungeonGenerator();
+                    int b;
+                    while ((b = nextBlock.getAndIncrement()) < blocks) {
+                        int to = Math.min(count, (b + 1) * BLOCK);
+                        for (int i = b * BLOCK; i < to; i++) {
+                            world.reset();
+                            record(index, i, dungeonGenerator.generate(world, firstSeed + i, generator));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : workers) {
+                f.get();
+            }
+            return index;
+        } catch (Exception e) {
+            throw new RuntimeException("시드 스윕 실패: " + e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void record(SeedIndex index, int i, DungeonAnalysis analysis) {
+        World world = analysis.getWorld();
+        int boss = analysis.getFarthest();
+        int[] path = analysis.pathTo(boss);
+        index.set(SeedIndex.Column.BOSS_DISTANCE, i, analysis.getMaxDistance());
+        index.set(SeedIndex.Column.DEAD_ENDS, i, analysis.getDeadEndCount());
+
+        int wolves = 0;
+        int skeletons = 0;
+        int minotaurs = 0;
+        int size = world.size();
+        for (int c = 0; c < size; c++) {
+            if (!world.hasMonster(c)) continue;
+            String name = world.getMonster(c).getName();
+            if (name.equals(DungeonGenerator.WOLF)) wolves++;
+            else if (name.equals(DungeonGenerator.SKELETON)) skeletons++;
+            else if (name.equals(DungeonGenerator.MINOTAUR)) minotaurs++;
+        }
+        index.set(SeedIndex.Column.WOLVES, i, wolves);
+        index.set(SeedIndex.Column.SKELETONS, i, skeletons);
+        index.set(SeedIndex.Column.MINOTAURS, i, minotaurs);
+
+        // 보스까지 최단 경로를 따라가며 싸운다고 보고, 평균 공격력(9 + 무기)으로 받는 반격 피해를 더한다.
+        int keyIndex = Integer.MAX_VALUE;
+        int bonus = 0;
+        int damage = 0;
+        for (int k = 1; k < path.length; k++) {
+            int c = path[k];
+            Item item = world.getItem(c);
+            if (item != null) {
+                if (item.getName().equals("보스열쇠")) keyIndex = k;
+                else if (item.getName().equals("장검")) bonus = 10;
+                else if (item.getName().equals("단검") && bonus < 5) bonus = 5;
+            }
+            Monster m = world.getMonster(c);
+            if (m != null) {
+                int avg = 9 + bonus;
+                int hits = (m.getHealth() + avg - 1) / avg;
+                damage += (hits - 1) * m.getAttackDamage();
+            }
+        }
+        index.set(SeedIndex.Column.KEY_PATH_INDEX, i, keyIndex);
+        index.set(SeedIndex.Column.EXPECTED_DAMAGE, i, damage);
+    }
+
+    // 사용법:
+    //   SeedSweep <첫 시드> <개수> <출력 파일> [맵 크기] [스레드 수]
+    //   SeedSweep query <인덱스 파일> BOSS_DISTANCE>=6 MINOTAURS=0 ...
+    public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("query")) {
+            SeedIndex index = SeedIndex.read(Path.of(args[1]));
+            SeedIndex.Query query = index.query();
+            for (int i = 2; i < args.length; i++) {
+                String cond = args[i];
+                int op = cond.indexOf(">=") >= 0 ? cond.indexOf(">=") : cond.indexOf("<=") >= 0 ? cond.indexOf("<=") : cond.indexOf('=');
+                if (op <= 0) throw new IllegalArgumentException("잘못된 조건: " + cond);
+                SeedIndex.Column column = SeedIndex.Column.valueOf(cond.substring(0, op));
+                if (cond.startsWith(">=", op)) query.atLeast(column, Integer.parseInt(cond.substring(op + 2)));
+                else if (cond.startsWith("<=", op)) query.atMost(column, Integer.parseInt(cond.substring(op + 2)));
+                else query.equalTo(column, Integer.parseInt(cond.substring(op + 1)));
+            }
+            int[] seeds = query.seeds();
+            System.out.println(seeds.length + "개 시드 일치 (전체 " + index.getCount() + "개)");
+            for (int i = 0; i < Math.min(20, seeds.length); i++) System.out.println(seeds[i]);
+            return;
+        }
+        int firstSeed = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        Path out = Path.of(args[2]);
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+        SeedIndex index = new SeedSweep(size, size, MazeGenerator.BACKTRACKER, threads).sweep(firstSeed, count);
+        long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        index.write(out);
+        System.out.println(String.format("%,d개 시드 %dms (초당 %,d개) → %s", count, ms, count * 1000L / ms, out));
+    }
+}
@@ -0,0 +1,201 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SimulationRunner {
+    private static final int MAX_ACTIONS = 10_000;
+
+    public static class Report {
+        private long games;
+        private long cleared;
+        private long died;
+        private long stuck;
+        private long totalActions;
+        private long potionsUsed;
+        private long clearedWithWeapon;
+        private long gamesWithWeapon;
+        private final Map<String, long[]> tiers = new TreeMap<>();
+
+        // tiers 값: {처치 수, 이 몬스터에게 쓰러진 수, 받은 피해 합}
+        private long[] tier(String name) {
+            return tiers.computeIfAbsent(name, k -> new long[3]);
+        }
+
+        private void merge(Report other) {
+            games += other.games;
+            cleared += other.cleared;
+            died += other.died;
+            stuck += other.stuck;
+            totalActions += other.totalActions;
+            potionsUsed += other.potionsUsed;
+            clearedWithWeapon += other.clearedWithWeapon;
+            gamesWithWeapon += other.gamesWithWeapon;
+            for (Map.Entry<String, long[]> e : other.tiers.entrySet()) {
+                long[] t = tier(e.getKey());
+                for (int i = 0; i < t.length; i++) t[i] += e.getValue()[i];
+            }
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getCleared() {
+            return cleared;
+        }
+
+        public long getDied() {
+            return died;
+        }
+
+        public long getStuck() {
+            return stuck;
+        }
+
+        public long getKills(String monsterName) {
+            long[] t = tiers.get(monsterName);
+            return t == null ? 0 : t[0];
+        }
+
+        public long getDeathsBy(String monsterName) {
+            long[] t = tiers.get(monsterName);
+            return t == null ? 0 : t[1];
+        }
+
+        public long getDamageTakenFrom(String monsterName) {
+            long[] t = tiers.get(monsterName);
+            return t == null ? 0 : t[2];
+        }
+
+        public java.util.Set<String> getMonsterNames() {
+            return tiers.keySet();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("게임 %d판: 클리어 %.2f%%, 사망 %.2f%%, 미완료 %d판, 평균 행동 %.1f회, 포션 사용 %.2f회/판%n",
+                    games, 100.0 * cleared / Math.max(1, games), 100.0 * died / Math.max(1, games), stuck,
+                    (double) totalActions / Math.max(1, games), (double) potionsUsed / Math.max(1, games)));
+            sb.append(String.format("무기 장착 시 클리어율 %.2f%% (%d판), 미장착 시 %.2f%% (%d판)%n",
+                    100.0 * clearedWithWeapon / Math.max(1, gamesWithWeapon), gamesWithWeapon,
+                    100.0 * (cleared - clearedWithWeapon) / Math.max(1, games - gamesWithWeapon), games - gamesWithWeapon));
+            for (Map.Entry<String, long[]> e : tiers.entrySet()) {
+                long[] t = e.getValue();
+                sb.append(String.format("  %s: 처치 %d, 사망 원인 %d, 받은 피해 평균 %.1f/처치%n",
+                        e.getKey(), t[0], t[1], (double) t[2] / Math.max(1, t[0])));
+            }
+            return sb.toString();
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final MazeGenerator generator;
+    private final int threads;
+
+    public SimulationRunner(int width, int height, MazeGenerator generator, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("스레드 수는 1 이상이어야 합니다: " + threads);
+        }
+        this.width = width;
+        this.height = height;
+        this.generator = generator;
+        this.threads = threads;
+    }
+
+    // 시드 구간을 스레드 수만큼 나눠 각자 AutoPlayer 하나로 돌리고, 끝나면 보고서를 합친다.
+    public Report run(int firstSeed, int games) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Report>> parts = new ArrayList<>();
+            int per = (games + threads - 1) / threads;
+            for (int t = 0; t < threads; t++) {
+                int from = t * per;
+                int to = Math.min(games, from + per);
+                if (from >= to) break;
+                parts.add(pool.submit(() -> runRange(firstSeed + from, firstSeed + to)));
+            }
+            Report total = new Report();
+            for (Future<Report> f : parts) {
+                total.merge(f.get());
+            }
+            return total;
+        } catch (Exception e) {
+            throw new RuntimeException("시뮬레이션 실패: " + e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Report runRange(int fromSeed, int toSeed) {
+        Report report = new Report();
+        AutoPlayer player = new AutoPlayer();
+        for (int seed = fromSeed; seed < toSeed; seed++) {
+            Game game = new Game();
+            game.setDeterministicCombat(true);
+            game.setupGame(seed, width, height, generator);
+            play(game, player, report);
+        }
+        return report;
+    }
+
+    private static void play(Game game, AutoPlayer player, Report report) {
+        int actions = 0;
+        while (game.isRunning() && actions < MAX_ACTIONS) {
+            Action action = player.decide(game);
+            if (action == null) break;
+            Outcome outcome = game.apply(action);
+            actions++;
+            switch (outcome) {
+                case HEALED:
+                    report.potionsUsed++;
+                    break;
+                case HIT:
+                    report.tier(game.getLastMonster().getName())[2] += game.getLastDamageTaken();
+                    break;
+                case KILLED:
+                case CLEARED:
+                    report.tier(game.getLastMonster().getName())[0]++;
+                    break;
+                case PLAYER_DIED:
+                    long[] t = report.tier(game.getLastMonster().getName());
+                    t[1]++;
+                    t[2] += game.getLastDamageTaken();
+                    break;
+                default:
+                    break;
+            }
+        }
+        report.games++;
+        report.totalActions += actions;
+        boolean armed = game.getWeaponBonusDamage() > 0;
+        if (armed) report.gamesWithWeapon++;
+        if (game.isCleared()) {
+            report.cleared++;
+            if (armed) report.clearedWithWeapon++;
+        } else if (game.getPlayerHealth() <= 0) {
+            report.died++;
+        } else {
+            report.stuck++;
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        SimulationRunner runner = new SimulationRunner(size, size, MazeGenerator.BACKTRACKER, threads);
+        long t0 = System.nanoTime();
+        Report report = runner.run(0, games);
+        long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        System.out.print(report);
+        System.out.println(String.format("%dms, 분당 %,d판", ms, games * 60_000L / ms));
+    }
+}
@@ -0,0 +1,88 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Submission {
+    private final String nickname;
+    private final int seedId;
+    private final int width;
+    private final int height;
+    private final String generatorName;
+    private final List<String> commands;
+    private final long[] offsets;
+
+    // offsets[i]: 게임 시작 후 i번째 명령을 입력한 시각(ms), 줄어들면 안 된다.
+    public Submission(String nickname, int seedId, int width, int height, String generatorName, List<String> commands, long[] offsets) {
+        if (commands.size() != offsets.length) {
+            throw new IllegalArgumentException("명령 수와 시각 수가 다릅니다: " + commands.size() + " != " + offsets.length);
+        }
+        this.nickname = nickname;
+        this.seedId = seedId;
+        this.width = width;
+        this.height = height;
+        this.generatorName = generatorName;
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+        this.offsets = offsets.clone();
+    }
+
+    // 행동 기록을 플레이어가 입력했을 명령 문자열로 되돌린다.
+    public static Submission fromActionLog(String nickname, byte[] log) {
+        ActionLog.Reader reader = ActionLog.read(log);
+        List<String> commands = new ArrayList<>();
+        long[] offsets = new long[16];
+        while (reader.next()) {
+            if (commands.size() == offsets.length) offsets = java.util.Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[commands.size()] = reader.getMillis();
+            commands.add(toCommand(reader.getAction()));
+        }
+        return new Submission(nickname, reader.getSeed(), reader.getWidth(), reader.getHeight(), reader.getGeneratorName(),
+                commands, java.util.Arrays.copyOf(offsets, commands.size()));
+    }
+
+    private static String toCommand(Action action) {
+        switch (action.getType()) {
+            case MOVE: return "이동 " + action.getDirection().getLabel();
+            case PICK_UP: return "줍기 " + action.getItemName();
+            case USE: return "사용 " + action.getItemName();
+            case EQUIP: return "장착 " + action.getItemName();
+            case ATTACK: return "공격";
+            case TALK: return "대화";
+            case QUIT: return "종료";
+            default: return "봐";
+        }
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public int getSeedId() {
+        return seedId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getGeneratorName() {
+        return generatorName;
+    }
+
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    public int getCommandCount() {
+        return offsets.length;
+    }
+
+    public long getOffset(int i) {
+        return offsets[i];
+    }
+}
@@ -0,0 +1,48 @@
+package game;
+
+public class WilsonMazeGenerator implements MazeGenerator {
+    private static final byte IN_MAZE = 4;
+
+    @Override
+    public String getName() {
+        return "wilson";
+    }
+
+    @Override
+    public void generate(World world, java.util.Random rng) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        int size = world.size();
+        byte[] state = new byte[size];
+        state[world.cellOf(0, 0)] = IN_MAZE;
+
+        for (int start = 0; start < size; start++) {
+            if (state[start] == IN_MAZE) continue;
+
+            // 미로에 닿을 때까지 무작위로 걷는다. 같은 칸을 다시 지나면 방향을 덮어써서 고리가 지워진다.
+            int c = start;
+            while (state[c] != IN_MAZE) {
+                int x = c % width;
+                int y = c / width;
+                Direction d;
+                int nx, ny;
+                do {
+                    d = MazeCarver.CARVE_ORDER[rng.nextInt(4)];
+                    nx = x + d.getDx();
+                    ny = y + d.getDy();
+                } while (nx < 0 || ny < 0 || nx >= width || ny >= height);
+                state[c] = (byte) d.ordinal();
+                c = ny * width + nx;
+            }
+
+            c = start;
+            while (state[c] != IN_MAZE) {
+                Direction d = Direction.ofOrdinal(state[c]);
+                int next = c + d.getDy() * width + d.getDx();
+                world.link(c, next, d);
+                state[c] = IN_MAZE;
+                c = next;
+            }
+        }
+    }
+}
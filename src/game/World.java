@@ -0,0 +1,633 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class World {
+    private static final int FLAG_LOCKED = 1;
+    private static final int FLAG_VISITED = 2;
+
+    private final int width;
+    private final int height;
+    private final byte[] exits;
+    private final byte[] flags;
+    private final char[] descriptionIds;
+    // 공유 템플릿에서 만든 맵은 몬스터/아이템 배열을 처음 바꿀 때 복사한다.
+    private byte[] monsterKinds;
+    private short[] monsterHealth;
+    private byte[] itemIds;
+    private boolean ownsMonsters = true;
+    private boolean ownsItems = true;
+
+    private final List<String> descriptions;
+    private final Map<String, Integer> descriptionIndex;
+    private final List<Monster> monsterPalette;
+    private final List<Item> itemPalette;
+    private final Map<Integer, String> requiredItems;
+    private final Map<Integer, String[]> npcs;
+    private Map<Integer, Integer> portals = null;
+    private final ChunkedWorld owner;
+    private final int chunkX;
+    private final int chunkY;
+    private final World template;
+    private boolean dirty;
+    // 생성 이후 플레이로 바뀐 칸. 스냅샷은 이 칸들만 담는다.
+    private java.util.BitSet changed;
+
+    public World(int width, int height, String defaultDescription) {
+        this(width, height, defaultDescription, null, 0, 0);
+    }
+
+    World(int width, int height, String defaultDescription, ChunkedWorld owner, int chunkX, int chunkY) {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("잘못된 맵 크기: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        this.exits = new byte[size];
+        this.flags = new byte[size];
+        this.descriptionIds = new char[size];
+        this.monsterKinds = new byte[size];
+        this.monsterHealth = new short[size];
+        this.itemIds = new byte[size];
+        this.descriptions = new ArrayList<>();
+        this.descriptionIndex = new HashMap<>();
+        this.monsterPalette = new ArrayList<>();
+        this.itemPalette = new ArrayList<>();
+        this.requiredItems = new HashMap<>();
+        this.npcs = new HashMap<>();
+        this.owner = owner;
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.template = null;
+        internDescription(defaultDescription);
+    }
+
+    // 구조(출구, 설명, 팔레트, 잠금 조건, NPC)는 템플릿과 공유하고 플래그만 바로 복사한다.
+    private World(World template) {
+        this.width = template.width;
+        this.height = template.height;
+        this.exits = template.exits;
+        this.flags = template.flags.clone();
+        this.descriptionIds = template.descriptionIds;
+        this.monsterKinds = template.monsterKinds;
+        this.monsterHealth = template.monsterHealth;
+        this.itemIds = template.itemIds;
+        this.ownsMonsters = false;
+        this.ownsItems = false;
+        this.descriptions = template.descriptions;
+        this.descriptionIndex = template.descriptionIndex;
+        this.monsterPalette = template.monsterPalette;
+        this.itemPalette = template.itemPalette;
+        this.requiredItems = template.requiredItems;
+        this.npcs = template.npcs;
+        this.portals = template.portals;
+        this.owner = null;
+        this.chunkX = 0;
+        this.chunkY = 0;
+        this.template = template;
+    }
+
+    // 템플릿은 만든 뒤 바꾸지 않는다는 전제로 세션별 맵을 만든다.
+    World fork() {
+        if (owner != null) {
+            throw new IllegalStateException("오픈 월드 청크는 템플릿으로 쓸 수 없습니다.");
+        }
+        return new World(template != null ? template : this);
+    }
+
+    private void checkStructureMutable() {
+        if (template != null) {
+            throw new IllegalStateException("공유 템플릿에서 만든 맵은 구조를 바꿀 수 없습니다.");
+        }
+    }
+
+    private void ownMonsters() {
+        if (!ownsMonsters) {
+            monsterKinds = monsterKinds.clone();
+            monsterHealth = monsterHealth.clone();
+            ownsMonsters = true;
+        }
+    }
+
+    private void ownItems() {
+        if (!ownsItems) {
+            itemIds = itemIds.clone();
+            ownsItems = true;
+        }
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    // ChunkedWorld가 청크 좌표를 제한하므로 넘치지 않는다. 그래도 넘치면 좌표가 조용히 꼬이지 않게 예외를 낸다.
+    public int getOriginX() {
+        return Math.multiplyExact(chunkX, width);
+    }
+
+    public int getOriginY() {
+        return Math.multiplyExact(chunkY, height);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return exits.length;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public int cellOf(int x, int y) {
+        return y * width + x;
+    }
+
+    public int xOf(int cell) {
+        return cell % width;
+    }
+
+    public int yOf(int cell) {
+        return cell / width;
+    }
+
+    public Room room(int x, int y) {
+        return new Room(this, cellOf(x, y));
+    }
+
+    public Room room(int cell) {
+        return new Room(this, cell);
+    }
+
+    public int exitMask(int cell) {
+        return exits[cell];
+    }
+
+    public boolean hasExit(int cell, Direction d) {
+        return (exits[cell] & d.bit()) != 0;
+    }
+
+    public int neighbor(int cell, Direction d) {
+        if ((exits[cell] & d.bit()) == 0) return -1;
+        return cell + d.getDy() * width + d.getDx();
+    }
+
+    void connect(int cell, Direction d) {
+        int x = xOf(cell) + d.getDx();
+        int y = yOf(cell) + d.getDy();
+        if (!inBounds(x, y)) return;
+        link(cell, cellOf(x, y), d);
+    }
+
+    void addExits(int cell, int mask) {
+        checkStructureMutable();
+        exits[cell] |= (byte) mask;
+    }
+
+    void link(int cell, int other, Direction d) {
+        checkStructureMutable();
+        exits[cell] |= d.bit();
+        exits[other] |= d.opposite().bit();
+    }
+
+    public int portalMask(int cell) {
+        if (portals == null) return 0;
+        Integer mask = portals.get(cell);
+        return mask == null ? 0 : mask;
+    }
+
+    public int fullExitMask(int cell) {
+        return exits[cell] | portalMask(cell);
+    }
+
+    void openPortal(int cell, Direction d) {
+        checkStructureMutable();
+        if (portals == null) portals = new HashMap<>();
+        portals.merge(cell, d.bit(), (a, b) -> a | b);
+    }
+
+    Room crossPortal(int cell, Direction d) {
+        if (owner == null || (portalMask(cell) & d.bit()) == 0) return null;
+        return owner.roomAcross(this, cell, d);
+    }
+
+    public String getDescription(int cell) {
+        return descriptions.get(descriptionIds[cell]);
+    }
+
+    void setDescription(int cell, String description) {
+        checkStructureMutable();
+        descriptionIds[cell] = (char) internDescription(description);
+    }
+
+    private int internDescription(String description) {
+        Integer id = descriptionIndex.get(description);
+        if (id != null) return id;
+        if (descriptions.size() > Character.MAX_VALUE) {
+            throw new IllegalStateException("방 설명 종류가 너무 많습니다.");
+        }
+        int next = descriptions.size();
+        descriptions.add(description);
+        descriptionIndex.put(description, next);
+        return next;
+    }
+
+    public boolean hasMonster(int cell) {
+        return monsterKinds[cell] != 0;
+    }
+
+    public Monster getMonster(int cell) {
+        int kind = monsterKinds[cell] & 0xff;
+        if (kind == 0) return null;
+        return new Monster(this, cell, monsterPalette.get(kind - 1));
+    }
+
+    void setMonster(int cell, Monster monster) {
+        if (monster == null) {
+            clearMonster(cell);
+            return;
+        }
+        checkStructureMutable();
+        monsterKinds[cell] = (byte) internMonster(monster);
+        monsterHealth[cell] = (short) monster.getHealth();
+    }
+
+    void clearMonster(int cell) {
+        ownMonsters();
+        monsterKinds[cell] = 0;
+        monsterHealth[cell] = 0;
+        dirty = true;
+        touch(cell);
+    }
+
+    int getMonsterHealth(int cell) {
+        return monsterHealth[cell];
+    }
+
+    void setMonsterHealth(int cell, int health) {
+        ownMonsters();
+        monsterHealth[cell] = (short) health;
+        dirty = true;
+        touch(cell);
+    }
+
+    private int internMonster(Monster monster) {
+        for (int i = 0; i < monsterPalette.size(); i++) {
+            Monster p = monsterPalette.get(i);
+            if (p.getName().equals(monster.getName()) && p.getAttackDamage() == monster.getAttackDamage() && p.isBoss() == monster.isBoss()) {
+                return i + 1;
+            }
+        }
+        if (monsterPalette.size() >= 255) {
+            throw new IllegalStateException("몬스터 종류가 너무 많습니다.");
+        }
+        monsterPalette.add(new Monster(monster.getName(), monster.getHealth(), monster.getAttackDamage(), monster.isBoss()));
+        return monsterPalette.size();
+    }
+
+    public boolean hasItem(int cell) {
+        return itemIds[cell] != 0;
+    }
+
+    public Item getItem(int cell) {
+        int id = itemIds[cell] & 0xff;
+        return id == 0 ? null : itemPalette.get(id - 1);
+    }
+
+    void setItem(int cell, Item item) {
+        checkStructureMutable();
+        if (itemIds[cell] != 0) {
+            throw new IllegalStateException("한 방에는 아이템을 하나만 둘 수 있습니다.");
+        }
+        itemIds[cell] = (byte) internItem(item);
+    }
+
+    Item takeItem(int cell) {
+        Item item = getItem(cell);
+        ownItems();
+        itemIds[cell] = 0;
+        dirty = true;
+        touch(cell);
+        return item;
+    }
+
+    private int internItem(Item item) {
+        for (int i = 0; i < itemPalette.size(); i++) {
+            Item p = itemPalette.get(i);
+            if (p.getName().equals(item.getName()) && p.getDescription().equals(item.getDescription())) {
+                return i + 1;
+            }
+        }
+        if (itemPalette.size() >= 255) {
+            throw new IllegalStateException("아이템 종류가 너무 많습니다.");
+        }
+        itemPalette.add(item);
+        return itemPalette.size();
+    }
+
+    public boolean isLocked(int cell) {
+        return (flags[cell] & FLAG_LOCKED) != 0;
+    }
+
+    void lock(int cell, String requiredItemName) {
+        checkStructureMutable();
+        flags[cell] |= FLAG_LOCKED;
+        requiredItems.put(cell, requiredItemName);
+    }
+
+    boolean unlock(int cell, String usedItemName) {
+        String required = requiredItems.get(cell);
+        if (isLocked(cell) && required != null && required.equalsIgnoreCase(usedItemName)) {
+            flags[cell] &= ~FLAG_LOCKED;
+            dirty = true;
+            touch(cell);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isVisited(int cell) {
+        return (flags[cell] & FLAG_VISITED) != 0;
+    }
+
+    void markVisited(int cell) {
+        if ((flags[cell] & FLAG_VISITED) == 0) {
+            flags[cell] |= FLAG_VISITED;
+            dirty = true;
+            touch(cell);
+        }
+    }
+
+    private void touch(int cell) {
+        if (changed == null) changed = new java.util.BitSet(exits.length);
+        changed.set(cell);
+    }
+
+    // 같은 크기의 맵을 연달아 생성할 때 배열을 다시 쓰기 위해 비운다. 팔레트는 그대로 둔다.
+    void reset() {
+        checkStructureMutable();
+        java.util.Arrays.fill(exits, (byte) 0);
+        java.util.Arrays.fill(flags, (byte) 0);
+        java.util.Arrays.fill(descriptionIds, (char) 0);
+        java.util.Arrays.fill(monsterKinds, (byte) 0);
+        java.util.Arrays.fill(monsterHealth, (short) 0);
+        java.util.Arrays.fill(itemIds, (byte) 0);
+        requiredItems.clear();
+        npcs.clear();
+        portals = null;
+        dirty = false;
+        changed = null;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void clearDirty() {
+        dirty = false;
+    }
+
+    long estimateBytes() {
+        if (template != null) {
+            return 64L + flags.length + (ownsMonsters ? monsterKinds.length * 3L : 0) + (ownsItems ? itemIds.length : 0);
+        }
+        return 64L + exits.length * 8L + descriptions.size() * 64L + (requiredItems.size() + npcs.size()) * 96L;
+    }
+
+    void setNpc(int cell, String name, String dialog) {
+        checkStructureMutable();
+        npcs.put(cell, new String[] { name, dialog });
+    }
+
+    public boolean hasNpc(int cell) {
+        return npcs.containsKey(cell);
+    }
+
+    String talkToNpc(int cell) {
+        String[] npc = npcs.get(cell);
+        if (npc == null) return "여기엔 아무도 없습니다.";
+        return npc[0] + ": " + (npc[1] == null ? "..." : npc[1]);
+    }
+
+    private static final int CODEC_VERSION = 1;
+
+    byte[] encode() {
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream(exits.length * 5 + 256);
+        try (java.io.DataOutputStream out = new java.io.DataOutputStream(bytes)) {
+            out.writeByte(CODEC_VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(chunkX);
+            out.writeInt(chunkY);
+            out.writeInt(descriptions.size());
+            for (String d : descriptions) writeString(out, d);
+            out.write(exits);
+            out.write(flags);
+            boolean wideIds = descriptions.size() > 256;
+            for (char id : descriptionIds) {
+                if (wideIds) out.writeChar(id); else out.writeByte(id);
+            }
+            out.writeInt(monsterPalette.size());
+            for (Monster m : monsterPalette) {
+                writeString(out, m.getName());
+                out.writeShort(m.getHealth());
+                out.writeShort(m.getAttackDamage());
+                out.writeBoolean(m.isBoss());
+            }
+            out.write(monsterKinds);
+            for (int c = 0; c < monsterKinds.length; c++) {
+                if (monsterKinds[c] != 0) out.writeShort(monsterHealth[c]);
+            }
+            out.writeInt(itemPalette.size());
+            for (Item it : itemPalette) {
+                writeString(out, it.getName());
+                writeString(out, it.getDescription());
+            }
+            out.write(itemIds);
+            out.writeInt(requiredItems.size());
+            for (Map.Entry<Integer, String> e : requiredItems.entrySet()) {
+                out.writeInt(e.getKey());
+                writeString(out, e.getValue());
+            }
+            out.writeInt(npcs.size());
+            for (Map.Entry<Integer, String[]> e : npcs.entrySet()) {
+                out.writeInt(e.getKey());
+                writeString(out, e.getValue()[0]);
+                writeString(out, e.getValue()[1]);
+            }
+            Map<Integer, Integer> p = portals == null ? java.util.Collections.emptyMap() : portals;
+            out.writeInt(p.size());
+            for (Map.Entry<Integer, Integer> e : p.entrySet()) {
+                out.writeInt(e.getKey());
+                out.writeByte(e.getValue());
+            }
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static World decode(java.nio.ByteBuffer in, ChunkedWorld owner) {
+        int version = in.get();
+        if (version != CODEC_VERSION) {
+            throw new IllegalStateException("지원하지 않는 월드 형식 버전: " + version);
+        }
+        int width = in.getInt();
+        int height = in.getInt();
+        int chunkX = in.getInt();
+        int chunkY = in.getInt();
+        int descCount = in.getInt();
+        World w = new World(width, height, readString(in), owner, chunkX, chunkY);
+        for (int i = 1; i < descCount; i++) w.internDescription(readString(in));
+        in.get(w.exits);
+        in.get(w.flags);
+        boolean wideIds = descCount > 256;
+        for (int c = 0; c < w.descriptionIds.length; c++) {
+            w.descriptionIds[c] = wideIds ? in.getChar() : (char) (in.get() & 0xff);
+        }
+        int monsterCount = in.getInt();
+        for (int i = 0; i < monsterCount; i++) {
+            String name = readString(in);
+            int hp = in.getShort();
+            int atk = in.getShort();
+            boolean boss = in.get() != 0;
+            w.monsterPalette.add(new Monster(name, hp, atk, boss));
+        }
+        in.get(w.monsterKinds);
+        for (int c = 0; c < w.monsterKinds.length; c++) {
+            if (w.monsterKinds[c] != 0) w.monsterHealth[c] = in.getShort();
+        }
+        int itemCount = in.getInt();
+        for (int i = 0; i < itemCount; i++) {
+            String name = readString(in);
+            w.itemPalette.add(new Item(name, readString(in)));
+        }
+        in.get(w.itemIds);
+        int lockCount = in.getInt();
+        for (int i = 0; i < lockCount; i++) {
+            int cell = in.getInt();
+            w.requiredItems.put(cell, readString(in));
+        }
+        int npcCount = in.getInt();
+        for (int i = 0; i < npcCount; i++) {
+            int cell = in.getInt();
+            String name = readString(in);
+            w.npcs.put(cell, new String[] { name, readString(in) });
+        }
+        int portalCount = in.getInt();
+        for (int i = 0; i < portalCount; i++) {
+            int cell = in.getInt();
+            if (w.portals == null) w.portals = new HashMap<>();
+            w.portals.put(cell, (int) in.get());
+        }
+        return w;
+    }
+
+    // 팔레트 번호(1부터). 팔레트에 없는 아이템이면 0.
+    int itemIdOf(Item item) {
+        for (int i = 0; i < itemPalette.size(); i++) {
+            if (itemPalette.get(i) == item) return i + 1;
+        }
+        return 0;
+    }
+
+    Item itemById(int id) {
+        if (id < 1 || id > itemPalette.size()) {
+            throw new IllegalArgumentException("스냅샷 형식 오류: 아이템 번호 " + id);
+        }
+        return itemPalette.get(id - 1);
+    }
+
+    // 바뀐 칸만 (앞 칸과의 간격, 플래그, 몬스터 종류/체력, 아이템) 순서로 쓴다.
+    void writeDelta(java.io.ByteArrayOutputStream out) {
+        writeVarint(out, changed == null ? 0 : changed.cardinality());
+        if (changed == null) return;
+        int prev = -1;
+        for (int c = changed.nextSetBit(0); c >= 0; c = changed.nextSetBit(c + 1)) {
+            writeVarint(out, c - prev - 1);
+            out.write(flags[c]);
+            out.write(monsterKinds[c]);
+            if (monsterKinds[c] != 0) writeVarint(out, monsterHealth[c]);
+            out.write(itemIds[c]);
+            prev = c;
+        }
+    }
+
+    // 같은 시드로 새로 생성한 맵 위에 덮어쓴다.
+    void readDelta(java.nio.ByteBuffer in) {
+        int count = (int) readVarint(in);
+        if (count > 0) {
+            ownMonsters();
+            ownItems();
+        }
+        int c = -1;
+        for (int i = 0; i < count; i++) {
+            c += (int) readVarint(in) + 1;
+            if (c < 0 || c >= exits.length) {
+                throw new IllegalArgumentException("스냅샷 형식 오류: 칸 번호 " + c);
+            }
+            flags[c] = in.get();
+            int kind = in.get() & 0xff;
+            if (kind > monsterPalette.size()) {
+                throw new IllegalArgumentException("스냅샷 형식 오류: 몬스터 번호 " + kind);
+            }
+            monsterKinds[c] = (byte) kind;
+            monsterHealth[c] = kind != 0 ? (short) readVarint(in) : 0;
+            int item = in.get() & 0xff;
+            if (item != 0) itemById(item);
+            itemIds[c] = (byte) item;
+            touch(c);
+        }
+        dirty = true;
+    }
+
+    static void writeVarint(java.io.ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7fL) != 0) {
+            out.write((int) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    static long readVarint(java.nio.ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get();
+            v |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IllegalArgumentException("스냅샷 형식 오류: varint가 너무 깁니다.");
+    }
+
+    private static void writeString(java.io.DataOutputStream out, String s) throws java.io.IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(java.nio.ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, java.nio.charset.StandardCharsets.UTF_8);
+    }
+}